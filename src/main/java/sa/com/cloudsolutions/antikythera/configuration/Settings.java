@@ -258,6 +258,14 @@ public class Settings {
         return null;
     }
 
+    /**
+     * Override or add a property after the configuration has been loaded.
+     * @param key the name of the property
+     * @param value the new value
+     */
+    public static void setProperty(String key, Object value) {
+        props.put(key, value);
+    }
 
     /**
      * The base package for the AUT.
@@ -97,6 +97,15 @@ public class ClassProcessor extends AbstractCompiler {
         super();
     }
 
+    /**
+     * The dependencies that have been discovered so far for the given class.
+     * @param className the fully qualified name of the class
+     * @return the set of dependencies which will be empty if the class has not been processed.
+     */
+    public static Set<ClassDependency> getDependencies(String className) {
+        return dependencies.getOrDefault(className, Set.of());
+    }
+
     public static String instanceToClassName(String string) {
         return string.substring(0, 1).toUpperCase() + string.substring(1);
     }
@@ -9,11 +9,32 @@ import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Builds the relation between interfaces and classes that implement them.
  */
 public class InterfaceSolver extends AbstractCompiler {
+    /**
+     * The interfaces implemented by classes in the current compilation unit, mapped to the
+     * implementing classes.
+     */
+    private final Map<String, Set<String>> implementations = new HashMap<>();
+    /**
+     * The parents of the classes in the current compilation unit mapped to the child classes.
+     */
+    private final Map<String, Set<String>> subClasses = new HashMap<>();
+    /**
+     * The other types that were consulted while working out the relations.
+     */
+    private final Set<String> dependencies = new HashSet<>();
+    /**
+     * The names of parents and interfaces that could not be resolved, as they were written.
+     */
+    private final Set<String> unresolved = new HashSet<>();
 
     /**
      * Constructs an InterfaceSolver instance and initializes the superclass.
@@ -52,7 +73,10 @@ public class InterfaceSolver extends AbstractCompiler {
         for (ClassOrInterfaceType parent : cdecl.getExtendedTypes()) {
             String parentName = AbstractCompiler.findFullyQualifiedName(cu, parent.getNameAsString());
             if (parentName != null) {
-                AntikytheraRunTime.addSubClass(parentName, t.getFullyQualifiedName().get());
+                addSubClass(parentName, t.getFullyQualifiedName().get());
+            }
+            else {
+                unresolved.add(parent.getNameWithScope());
             }
         }
     }
@@ -67,7 +91,7 @@ public class InterfaceSolver extends AbstractCompiler {
                  * cdecl is an implementation of the interface. Thus when ever @Autowired is encountered
                  * we can make use of one of the implementing classes.
                  */
-                AntikytheraRunTime.addImplementation(interfaceName, t.getFullyQualifiedName().get());
+                addImplementation(interfaceName, t.getFullyQualifiedName().get());
                 /*
                  * Some interfaces have their own parent interface and this class will have to be
                  * identified as an implement of that parent as well.
@@ -80,13 +104,44 @@ public class InterfaceSolver extends AbstractCompiler {
                             for (ClassOrInterfaceType parent : ifaceDecl.getExtendedTypes()) {
                                 String parentName = AbstractCompiler.findFullyQualifiedName(interfaceCu, parent.getNameAsString());
                                 if (parentName != null) {
-                                    AntikytheraRunTime.addImplementation(parentName, t.getFullyQualifiedName().get());
+                                    addImplementation(parentName, t.getFullyQualifiedName().get());
                                 }
                             }
                         }
                     }
                 }
             }
+            else {
+                unresolved.add(iface.getNameWithScope());
+            }
         }
     }
+
+    private void addImplementation(String iface, String impl) {
+        AntikytheraRunTime.addImplementation(iface, impl);
+        implementations.computeIfAbsent(iface, k -> new HashSet<>()).add(impl);
+        dependencies.add(iface);
+    }
+
+    private void addSubClass(String parent, String child) {
+        AntikytheraRunTime.addSubClass(parent, child);
+        subClasses.computeIfAbsent(parent, k -> new HashSet<>()).add(child);
+        dependencies.add(parent);
+    }
+
+    public Map<String, Set<String>> getImplementations() {
+        return implementations;
+    }
+
+    public Map<String, Set<String>> getSubClasses() {
+        return subClasses;
+    }
+
+    public Set<String> getDependencies() {
+        return dependencies;
+    }
+
+    public Set<String> getUnresolved() {
+        return unresolved;
+    }
 }
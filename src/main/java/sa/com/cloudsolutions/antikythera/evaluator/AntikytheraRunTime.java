@@ -4,6 +4,7 @@ import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.type.Type;
+import sa.com.cloudsolutions.antikythera.parser.LazyCompilationUnit;
 
 import java.util.Deque;
 import java.util.HashMap;
@@ -12,6 +13,8 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * <p>A basic Runtime for Antikythera.</p>
@@ -21,9 +24,10 @@ import java.util.TreeMap;
  */
 public class AntikytheraRunTime {
     /**
-     * Keeps track of all the classes that we have compiled
+     * Keeps track of all the classes that we have compiled.
+     * Concurrent because the source files may be pre-processed by several threads.
      */
-    private static final Map<String, ClassInfo> resolved = new HashMap<>();
+    private static final Map<String, ClassInfo> resolved = new ConcurrentHashMap<>();
     /**
      * <p>We are not using a stack data structure here, but a Deque. This is because Deque is a
      * double-ended queue, which can be used as a stack. It is more efficient than a Stack ADT.
@@ -37,12 +41,12 @@ public class AntikytheraRunTime {
     /**
      * Stores the interfaces and their implementations.
      */
-    protected static final Map<String, Set<String>> interfaces = new HashMap<>();
+    protected static final Map<String, Set<String>> interfaces = new ConcurrentHashMap<>();
 
     /**
      * Stores parent classes as keys and child classes as values.
      */
-    protected static final Map<String, Set<String>> extensions = new HashMap<>();
+    protected static final Map<String, Set<String>> extensions = new ConcurrentHashMap<>();
 
     private static final Set<Type> mockedFields = new HashSet<>();
 
@@ -58,40 +62,103 @@ public class AntikytheraRunTime {
 
     protected static final Map<String, Map<String,Variable>> statics = new HashMap<>();
 
+    /**
+     * Incremented whenever the state that field initialization depends on is discarded or
+     * changed, so that snapshots of evaluator fields taken earlier are no longer used.
+     */
+    private static int generation;
+
     private AntikytheraRunTime() {}
 
     public static CompilationUnit getCompilationUnit(String cls) {
-        ClassInfo info = resolved.get(cls);
+        ClassInfo info = findClassInfo(cls);
         if (info != null) {
             return info.getCu();
         }
         return null;
     }
 
+    private static ClassInfo findClassInfo(String cls) {
+        if (cls == null) {
+            return null;
+        }
+        ClassInfo info = resolved.get(cls);
+        return info != null ? info : findNestedClassInfo(cls);
+    }
+
+    /**
+     * Nested classes are only registered after the enclosing class has been parsed. So if the
+     * enclosing class is known but has not been loaded, load it and look again.
+     * @param cls the fully qualified name of a class that is not in the resolved map.
+     * @return the ClassInfo if cls turned out to be a nested class.
+     */
+    private static ClassInfo findNestedClassInfo(String cls) {
+        int dot = cls.lastIndexOf('.');
+        while (dot > 0) {
+            ClassInfo outer = resolved.get(cls.substring(0, dot));
+            if (outer != null) {
+                if (outer.isLoaded()) {
+                    return null;
+                }
+                outer.getCu();
+                return resolved.get(cls);
+            }
+            dot = cls.lastIndexOf('.', dot - 1);
+        }
+        return null;
+    }
+
     public static void addClass(String className, CompilationUnit cu) {
         ClassInfo classInfo = ClassInfo.factory(className, cu);
         resolved.put(className, classInfo);
     }
 
+    /**
+     * Register a class for which the compilation unit may not have been parsed yet.
+     * @param classInfo the class information
+     */
+    public static void addClass(ClassInfo classInfo) {
+        resolved.put(classInfo.getClassName(), classInfo);
+    }
+
+    public static ClassInfo getClassInfo(String className) {
+        return findClassInfo(className);
+    }
+
+    /**
+     * Checks whether a class is known to the runtime without forcing its source to be parsed.
+     * @param className the fully qualified name of the class
+     * @return true if the class has been compiled or registered for compilation on demand
+     */
+    public static boolean hasClass(String className) {
+        return findClassInfo(className) != null;
+    }
+
     public static boolean isServiceClass(String className) {
-        ClassInfo classInfo = resolved.get(className);
-        return classInfo != null && classInfo.serviceClass;
+        ClassInfo classInfo = findClassInfo(className);
+        return classInfo != null && classInfo.isServiceClass();
     }
 
     public static boolean isControllerClass(String className) {
-        ClassInfo classInfo = resolved.get(className);
-        return classInfo != null && classInfo.controllerClass;
+        ClassInfo classInfo = findClassInfo(className);
+        return classInfo != null && classInfo.isControllerClass();
     }
 
     public static boolean isComponentClass(String className) {
-        ClassInfo classInfo = resolved.get(className);
-        return classInfo != null && classInfo.componentClass;
+        ClassInfo classInfo = findClassInfo(className);
+        return classInfo != null && classInfo.isComponentClass();
     }
 
     public static void reset() {
         stack.clear();
         mockedFields.clear();
         autowired.clear();
+        generation++;
+        FieldSnapshot.clear();
+    }
+
+    static int getGeneration() {
+        return generation;
     }
 
     public static void push(Variable variable) {
@@ -107,85 +174,185 @@ public class AntikytheraRunTime {
     }
 
     public static boolean isInterface(String name) {
-        ClassInfo classInfo = resolved.get(name);
-        return classInfo != null && classInfo.isInterface;
+        ClassInfo classInfo = findClassInfo(name);
+        return classInfo != null && classInfo.isInterface();
     }
 
     public static void markAsMocked(Type elementType) {
-        mockedFields.add(elementType);
+        if (mockedFields.add(elementType)) {
+            generation++;
+        }
     }
 
     public static boolean isMocked(Type elementType) {
         return mockedFields.contains(elementType);
     }
 
-    static class ClassInfo {
+    /**
+     * Holds the compilation unit for a class along with a few facts about it that are frequently
+     * needed.
+     *
+     * The compilation unit may not be available straight away. Classes restored from a cache or
+     * discovered by scanning the file system are registered with a source from which the
+     * compilation unit will be parsed the first time that it is needed. The facts about the
+     * class are then either provided at registration time or worked out after parsing.
+     */
+    public static class ClassInfo {
         private String className;
         private CompilationUnit cu;
+        private Supplier<CompilationUnit> source;
         private boolean serviceClass;
         private boolean controllerClass;
         private boolean componentClass;
         private boolean isInterface;
+        private boolean flagsKnown;
         protected ClassInfo() {}
 
         public static ClassInfo factory(String className, CompilationUnit cu) {
             ClassInfo classInfo = new ClassInfo();
             classInfo.className = className;
             classInfo.cu = cu;
+            classInfo.identify(cu);
+            return classInfo;
+        }
 
-            cu.getPrimaryType();
+        /**
+         * Create an entry for a class that has not been parsed yet.
+         * @param className the fully qualified name of the class
+         * @param source supplies the compilation unit on demand. All the classes found in the same
+         *               file should share the same source so that the file is only parsed once.
+         * @return a ClassInfo instance that will parse the source when it is first required.
+         */
+        public static ClassInfo lazy(String className, Supplier<CompilationUnit> source) {
+            ClassInfo classInfo = new ClassInfo();
+            classInfo.className = className;
+            classInfo.source = source;
+            return classInfo;
+        }
+
+        /**
+         * Create an entry for a class whose compilation unit has just been parsed but may be
+         * discarded and parsed again later.
+         * @param className the fully qualified name of the class
+         * @param source supplies the compilation unit after it has been discarded
+         * @param cu the compilation unit, which is used to identify the class but not retained.
+         * @return a ClassInfo instance that does not hold on to the compilation unit
+         */
+        public static ClassInfo lazy(String className, LazyCompilationUnit source, CompilationUnit cu) {
+            ClassInfo classInfo = lazy(className, source);
+            classInfo.identify(cu);
+            return classInfo;
+        }
+
+        /**
+         * Provide the facts about the class without having to parse its source code.
+         */
+        public ClassInfo withFlags(boolean serviceClass, boolean controllerClass, boolean componentClass,
+                                   boolean isInterface) {
+            this.serviceClass = serviceClass;
+            this.controllerClass = controllerClass;
+            this.componentClass = componentClass;
+            this.isInterface = isInterface;
+            this.flagsKnown = true;
+            return this;
+        }
+
+        private void identify(CompilationUnit cu) {
             for(TypeDeclaration<?> type : cu.getTypes()) {
                 if(type.isPublic()) {
                     if(type.isAnnotationPresent("Service")) {
-                        classInfo.serviceClass = true;
+                        serviceClass = true;
                     } else if(type.isAnnotationPresent("RestController")
                                 || type.isAnnotationPresent("Controller")) {
-                        classInfo.controllerClass = true;
+                        controllerClass = true;
                     } else if(type.isAnnotationPresent("Component")) {
-                        classInfo.componentClass = true;
+                        componentClass = true;
                     }
 
                     if(type.isClassOrInterfaceDeclaration()) {
                         ClassOrInterfaceDeclaration cdecl = type.asClassOrInterfaceDeclaration();
-                        classInfo.isInterface = cdecl.isInterface();
+                        isInterface = cdecl.isInterface();
                     }
                 }
             }
-            return classInfo;
+            flagsKnown = true;
+        }
+
+        private void ensureFlags() {
+            if (!flagsKnown) {
+                CompilationUnit compilationUnit = getCu();
+                if (compilationUnit != null) {
+                    identify(compilationUnit);
+                }
+            }
         }
 
         public String getClassName() {
             return className;
         }
 
+        public boolean isLoaded() {
+            if (source instanceof LazyCompilationUnit lazy && lazy.isEvictable()) {
+                return lazy.isLoaded();
+            }
+            return cu != null;
+        }
+
         public CompilationUnit getCu() {
+            if (cu == null && source != null) {
+                if (source instanceof LazyCompilationUnit lazy && lazy.isEvictable()) {
+                    return lazy.get();
+                }
+                cu = source.get();
+            }
             return cu;
         }
+
+        public boolean isServiceClass() {
+            ensureFlags();
+            return serviceClass;
+        }
+
+        public boolean isControllerClass() {
+            ensureFlags();
+            return controllerClass;
+        }
+
+        public boolean isComponentClass() {
+            ensureFlags();
+            return componentClass;
+        }
+
+        public boolean isInterface() {
+            ensureFlags();
+            return isInterface;
+        }
     }
 
     public static void resetAll() {
         stack.clear();
+        FieldSnapshot.clear();
         resolved.clear();
         interfaces.clear();
         extensions.clear();
     }
 
     public static void addSubClass(String parent, String child) {
-        Set<String> s = extensions.computeIfAbsent(parent, k -> new HashSet<>());
+        Set<String> s = extensions.computeIfAbsent(parent, k -> ConcurrentHashMap.newKeySet());
         s.add(child);
     }
 
     public static Set<String> findSubClasses(String parent) {
-        return extensions.getOrDefault(parent, new HashSet<>());
+        return parent == null ? new HashSet<>() : extensions.getOrDefault(parent, new HashSet<>());
     }
 
     public static void addImplementation(String iface, String impl) {
-        Set<String> s = interfaces.computeIfAbsent(iface, k -> new HashSet<>());
+        Set<String> s = interfaces.computeIfAbsent(iface, k -> ConcurrentHashMap.newKeySet());
         s.add(impl);
     }
 
     public static Set<String> findImplementations(String iface) {
-        return interfaces.getOrDefault(iface, new HashSet<>());
+        return iface == null ? new HashSet<>() : interfaces.getOrDefault(iface, new HashSet<>());
     }
 
     public static void autoWire(String className, Variable variable) {
@@ -196,11 +363,23 @@ public class AntikytheraRunTime {
         return autowired.get(className);
     }
 
+    /**
+     * @return true if the variable is one of the instances shared by all the classes that autowire it
+     */
+    static boolean isAutoWired(Variable variable) {
+        for (Variable v : autowired.values()) {
+            if (v == variable) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static Map<String, CompilationUnit> getResolvedClasses() {
         // iterate through the resolved map and return the classnames and the compilation units as a map
         Map<String, CompilationUnit> resolvedClasses = new HashMap<>();
         for (Map.Entry<String, ClassInfo> entry : resolved.entrySet()) {
-            resolvedClasses.put(entry.getKey(), entry.getValue().cu);
+            resolvedClasses.put(entry.getKey(), entry.getValue().getCu());
         }
         return resolvedClasses;
     }
@@ -7,6 +7,11 @@ public class Arithmetics {
     /**
      * Simple arithmetic operations.
      * String can be added to anything but numbers are tricker.
+     *
+     * The operation is carried out in the widest of the two operand types, the same way that the
+     * Java language does it. Integer and long arithmetic is exact and wraps around on overflow,
+     * integer division by zero throws an ArithmeticException.
+     *
      * @param left the left operand
      * @param right the right operand
      * @return the result of the add operation which may be arithmatic or string concatenation
@@ -16,32 +21,66 @@ public class Arithmetics {
             return new Variable(left.getValue().toString() + right.getValue().toString());
         }
         if (left.getValue() instanceof Number l && right.getValue() instanceof Number r) {
-            Number result = performOperation(l, r, operator);
-
             if (l instanceof Double || r instanceof Double) {
-                return new Variable(result.doubleValue());
+                return new Variable(performOperation(l.doubleValue(), r.doubleValue(), operator));
             } else if (l instanceof Float || r instanceof Float) {
-                return new Variable(result.floatValue());
+                return new Variable(performOperation(l.floatValue(), r.floatValue(), operator));
             } else if (l instanceof Long || r instanceof Long) {
-                return new Variable(result.longValue());
+                return new Variable(performOperation(l.longValue(), r.longValue(), operator));
             } else if (l instanceof Integer || r instanceof Integer) {
-                return new Variable(result.intValue());
+                return new Variable(performOperation(l.intValue(), r.intValue(), operator));
             } else if (l instanceof Short || r instanceof Short) {
-                return new Variable(result.shortValue());
+                return new Variable((short) performOperation(l.intValue(), r.intValue(), operator));
             } else if (l instanceof Byte || r instanceof Byte) {
-                return new Variable(result.byteValue());
+                return new Variable((byte) performOperation(l.intValue(), r.intValue(), operator));
             }
         }
         return null;
     }
 
-    static Number performOperation(Number left, Number right, BinaryExpr.Operator operator) {
+    static double performOperation(double left, double right, BinaryExpr.Operator operator) {
+        return switch (operator) {
+            case PLUS -> left + right;
+            case MINUS -> left - right;
+            case DIVIDE -> left / right;
+            case MULTIPLY -> left * right;
+            case REMAINDER -> left % right;
+            default ->
+                    throw new IllegalArgumentException("Unsupported operator: " + operator);
+        };
+    }
+
+    static float performOperation(float left, float right, BinaryExpr.Operator operator) {
+        return switch (operator) {
+            case PLUS -> left + right;
+            case MINUS -> left - right;
+            case DIVIDE -> left / right;
+            case MULTIPLY -> left * right;
+            case REMAINDER -> left % right;
+            default ->
+                    throw new IllegalArgumentException("Unsupported operator: " + operator);
+        };
+    }
+
+    static long performOperation(long left, long right, BinaryExpr.Operator operator) {
+        return switch (operator) {
+            case PLUS -> left + right;
+            case MINUS -> left - right;
+            case DIVIDE -> left / right;
+            case MULTIPLY -> left * right;
+            case REMAINDER -> left % right;
+            default ->
+                    throw new IllegalArgumentException("Unsupported operator: " + operator);
+        };
+    }
+
+    static int performOperation(int left, int right, BinaryExpr.Operator operator) {
         return switch (operator) {
-            case PLUS -> left.doubleValue() + right.doubleValue();
-            case MINUS -> left.doubleValue() - right.doubleValue();
-            case DIVIDE -> left.doubleValue() / right.doubleValue();
-            case MULTIPLY -> left.doubleValue() * right.doubleValue();
-            case REMAINDER -> left.doubleValue() % right.doubleValue();
+            case PLUS -> left + right;
+            case MINUS -> left - right;
+            case DIVIDE -> left / right;
+            case MULTIPLY -> left * right;
+            case REMAINDER -> left % right;
             default ->
                     throw new IllegalArgumentException("Unsupported operator: " + operator);
         };
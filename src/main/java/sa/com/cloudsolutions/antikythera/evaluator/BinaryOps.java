@@ -12,22 +12,33 @@ public class BinaryOps {
      * @return a Variable holding either Boolean.TRUE or Boolean.FALSE
      */
     static Variable checkEquality(Variable left, Variable right) {
+        return new Variable(isEqual(left, right));
+    }
+
+    private static boolean isEqual(Variable left, Variable right) {
         if (left == null) {
-            if (right == null || right.getValue() == null) {
-                return new Variable(Boolean.TRUE);
-            }
-            return new Variable(Boolean.FALSE);
+            return right == null || right.getValue() == null;
         }
         if (right == null) {
-            if (left.getValue() == null) {
-                return new Variable(Boolean.TRUE);
-            }
-            return new Variable(Boolean.FALSE);
+            return left.getValue() == null;
         }
         if (left.getValue() == right.getValue()) {
-            return new Variable(Boolean.TRUE);
+            return true;
+        }
+        return left.getValue().equals(right.getValue());
+    }
+
+    /**
+     * Compare two numbers
+     * @return a negative number, zero or a positive number as the left is less than, equal to
+     *      or greater than the right.
+     * @throws EvaluatorException if either of the values is not a number
+     */
+    private static int compare(Expression leftExpression, Expression rightExpression, Variable left, Variable right) {
+        if (left.getValue() instanceof Number && right.getValue() instanceof Number) {
+            return NumericComparator.compare(left.getValue(), right.getValue());
         }
-        return new Variable(left.getValue().equals(right.getValue()));
+        throw new EvaluatorException("Cannot compare " + leftExpression + " and " + rightExpression);
     }
 
     static Variable binaryOps(BinaryExpr.Operator operator, Expression leftExpression, Expression rightExpression, Variable left, Variable right) {
@@ -39,35 +50,19 @@ public class BinaryOps {
                 return new Variable((boolean) left.getValue() && (boolean) right.getValue());
 
             case GREATER:
-                if (left.getValue() instanceof Number && right.getValue() instanceof Number) {
-                    return new Variable(NumericComparator.compare(left.getValue(), right.getValue()) > 0);
-                }
-                throw new EvaluatorException("Cannot compare " + leftExpression + " and " + rightExpression);
+                return new Variable(compare(leftExpression, rightExpression, left, right) > 0);
 
             case GREATER_EQUALS:
-                if (left.getValue() instanceof Number && right.getValue() instanceof Number) {
-                    return new Variable(NumericComparator.compare(left.getValue(), right.getValue()) >= 0);
-                }
-                throw new EvaluatorException("Cannot compare " + leftExpression + " and " + rightExpression);
+                return new Variable(compare(leftExpression, rightExpression, left, right) >= 0);
 
             case LESS:
-                if (left.getValue() instanceof Number && right.getValue() instanceof Number) {
-                    return new Variable(NumericComparator.compare(left.getValue(), right.getValue()) < 0);
-                }
-                throw new EvaluatorException("Cannot compare " + leftExpression + " and " + rightExpression);
+                return new Variable(compare(leftExpression, rightExpression, left, right) < 0);
 
             case LESS_EQUALS:
-                if (left.getValue() instanceof Number && right.getValue() instanceof Number) {
-                    return new Variable(NumericComparator.compare(left.getValue(), right.getValue()) <= 0);
-                }
-                throw new EvaluatorException("Cannot compare " + leftExpression + " and " + rightExpression);
+                return new Variable(compare(leftExpression, rightExpression, left, right) <= 0);
 
             case NOT_EQUALS:
-                Variable v = BinaryOps.checkEquality(left, right);
-                if (v.getValue() == null || Boolean.parseBoolean(v.getValue().toString())) {
-                    return new Variable(Boolean.FALSE);
-                }
-                return new Variable(Boolean.TRUE);
+                return new Variable(!isEqual(left, right));
 
             case OR:
                 if (  (left.getClazz().equals(Boolean.class) || left.getClazz().equals(boolean.class))
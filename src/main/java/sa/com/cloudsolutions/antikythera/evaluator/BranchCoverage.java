@@ -0,0 +1,215 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.Statement;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * <p>Keeps track of the paths taken through the if statements of the method being evaluated.</p>
+ *
+ * Every statement in a method is given an ordinal the first time that the method is visited,
+ * and the ordinal is kept with the statement. The paths taken are held in two bit sets indexed
+ * by the ordinal, so finding out whether a branch has been covered does not need the structural
+ * hash code of the statement, and two if statements that look exactly the same are still told
+ * apart.
+ *
+ * Each outcome of each if statement that has not been taken yet is a target. Once an if
+ * statement has been reached, the preconditions that should make it take the other outcome are
+ * recorded for that target, or the target is marked as unreachable if no values of the variables
+ * in the condition can produce that outcome. Targets are numbered twice the ordinal of their if
+ * statement, plus one for the true outcome.
+ *
+ * An ordinal is only accepted if the statement that it belongs to is the one that was numbered
+ * for the current method, statements from other methods are not tracked.
+ */
+final class BranchCoverage {
+    private static final DataKey<Integer> ORDINAL = new DataKey<>() {};
+    private static final DataKey<Statement[]> STATEMENTS = new DataKey<>() {};
+
+    private Statement[] statements = new Statement[0];
+    /**
+     * The if statements whose paths are being tracked.
+     */
+    private final BitSet branches = new BitSet();
+    private final BitSet truePath = new BitSet();
+    private final BitSet falsePath = new BitSet();
+    /**
+     * Targets that no values of the variables in the condition can reach.
+     */
+    private final BitSet unreachable = new BitSet();
+    /**
+     * Targets that a run has already been steered towards.
+     */
+    private final BitSet tried = new BitSet();
+    private final Map<Integer, Set<Expression>> preconditions = new TreeMap<>();
+
+    /**
+     * Start tracking a method, forgetting everything about the previous one.
+     * @param md the method that is about to be evaluated
+     */
+    void reset(MethodDeclaration md) {
+        if (md.containsData(STATEMENTS)) {
+            statements = md.getData(STATEMENTS);
+        } else {
+            List<Statement> all = md.findAll(Statement.class);
+            statements = all.toArray(new Statement[0]);
+            for (int i = 0; i < statements.length; i++) {
+                statements[i].setData(ORDINAL, i);
+            }
+            md.setData(STATEMENTS, statements);
+        }
+        forget();
+    }
+
+    /**
+     * Forget the current method.
+     */
+    void clear() {
+        statements = new Statement[0];
+        forget();
+    }
+
+    private void forget() {
+        branches.clear();
+        truePath.clear();
+        falsePath.clear();
+        unreachable.clear();
+        tried.clear();
+        preconditions.clear();
+    }
+
+    /**
+     * @return the ordinal of the statement in the current method or -1 if it does not belong to it
+     */
+    private int ordinal(Statement stmt) {
+        if (stmt.containsData(ORDINAL)) {
+            int i = stmt.getData(ORDINAL);
+            if (i < statements.length && statements[i] == stmt) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int target(int ordinal, boolean state) {
+        return 2 * ordinal + (state ? 1 : 0);
+    }
+
+    private boolean isCovered(int target) {
+        return (target & 1) == 1 ? truePath.get(target / 2) : falsePath.get(target / 2);
+    }
+
+    /**
+     * Track the paths taken through an if statement.
+     * @param stmt an if statement in the current method
+     */
+    void addBranch(IfStmt stmt) {
+        int i = ordinal(stmt);
+        if (i != -1) {
+            branches.set(i);
+        }
+    }
+
+    /**
+     * The paths that have been taken through an if statement.
+     * @param stmt the if statement
+     * @return one of the path constants in LineOfCode, or -1 if the statement is not tracked
+     */
+    int getPathTaken(Statement stmt) {
+        int i = ordinal(stmt);
+        if (i == -1 || !branches.get(i)) {
+            return -1;
+        }
+        return (truePath.get(i) ? LineOfCode.TRUE_PATH : 0) | (falsePath.get(i) ? LineOfCode.FALSE_PATH : 0);
+    }
+
+    void setPathTaken(Statement stmt, int pathTaken) {
+        int i = ordinal(stmt);
+        if (i != -1 && branches.get(i)) {
+            truePath.set(i, (pathTaken & LineOfCode.TRUE_PATH) != 0);
+            falsePath.set(i, (pathTaken & LineOfCode.FALSE_PATH) != 0);
+        }
+    }
+
+    /**
+     * Record what has to be set up for an if statement to take the given outcome.
+     * @param stmt the if statement
+     * @param state the outcome
+     * @param setters the expressions to evaluate before the run, may be empty if the condition
+     *                does not depend on anything that can be set from outside
+     */
+    void setPreconditions(Statement stmt, boolean state, Set<Expression> setters) {
+        int i = ordinal(stmt);
+        if (i != -1 && branches.get(i)) {
+            int t = target(i, state);
+            if (!setters.equals(preconditions.put(t, setters))) {
+                tried.clear(t);
+            }
+        }
+    }
+
+    /**
+     * Record that an if statement can never take the given outcome.
+     * @param stmt the if statement
+     * @param state the outcome
+     */
+    void setUnreachable(Statement stmt, boolean state) {
+        int i = ordinal(stmt);
+        if (i != -1 && branches.get(i)) {
+            unreachable.set(target(i, state));
+        }
+    }
+
+    /**
+     * Choose the target for the next run.
+     * The first target that has not been taken, that may be reachable, whose preconditions are
+     * known and that no run has been steered towards with the same preconditions.
+     * @return the preconditions for the chosen target, or null if there is no such target
+     */
+    Set<Expression> nextTarget() {
+        for (Map.Entry<Integer, Set<Expression>> entry : preconditions.entrySet()) {
+            int t = entry.getKey();
+            if (!isCovered(t) && !unreachable.get(t) && !tried.get(t)) {
+                tried.set(t);
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return true if there is a target that has neither been taken nor shown to be unreachable
+     */
+    boolean hasReachableTargets() {
+        for (int i = branches.nextSetBit(0); i >= 0; i = branches.nextSetBit(i + 1)) {
+            for (int t = target(i, false); t <= target(i, true); t++) {
+                if (!isCovered(t) && !unreachable.get(t)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of if statements being tracked
+     */
+    int size() {
+        return branches.cardinality();
+    }
+
+    /**
+     * @return the number of paths through the tracked if statements that have not been taken
+     */
+    int countUncovered() {
+        return 2 * branches.cardinality() - truePath.cardinality() - falsePath.cardinality();
+    }
+}
@@ -0,0 +1,183 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.CastExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.LiteralExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+import com.github.javaparser.ast.stmt.BlockStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.visitor.TreeVisitor;
+
+/**
+ * <p>The body of a method turned into a tree of steps that can be run without interpreting it.</p>
+ *
+ * A method is evaluated many times over to cover its branches, and the interpreter works out
+ * what kind of node it is looking at on every visit. When the compile_methods setting is true
+ * each statement and expression in the body is given a step the first time that the method is
+ * executed, and the evaluator runs the step instead. Names and literal values are bound into
+ * the steps, and expression statements, brackets and casts call the step of the expression that
+ * they hold directly.
+ *
+ * The steps for if statements, blocks, returns, binary expressions, method calls and object
+ * creation call the same methods of the evaluator as the interpreter does, because subclasses
+ * give those their own meaning. So a compiled run does exactly what an interpreted run does.
+ * Every other kind of node is left to the interpreter.
+ *
+ * The steps are kept with the nodes. The method is observed, and any change to it makes all of
+ * its steps unusable until it is compiled again on its next execution. A clone of a node takes a
+ * copy of its data, so the steps are only used for the node that they were compiled for.
+ */
+final class CompiledMethod extends AstObserverAdapter {
+    private static final DataKey<CompiledMethod> METHOD = new DataKey<>() {};
+    private static final DataKey<Compiled<Step>> STEP = new DataKey<>() {};
+    private static final DataKey<Compiled<Operand>> OPERAND = new DataKey<>() {};
+
+    /**
+     * Code that executes a statement.
+     */
+    @FunctionalInterface
+    interface Step {
+        @SuppressWarnings("java:S112")
+        void execute(Evaluator eval) throws Exception;
+    }
+
+    /**
+     * Code that evaluates an expression.
+     */
+    @FunctionalInterface
+    interface Operand {
+        Variable evaluate(Evaluator eval) throws ReflectiveOperationException;
+    }
+
+    private record Compiled<T>(CompiledMethod method, int version, Node node, T code) {
+        T current(Node n) {
+            return node == n && method.version == version ? code : null;
+        }
+    }
+
+    private final MethodDeclaration md;
+
+    /**
+     * Incremented whenever anything in the method changes.
+     */
+    private int version;
+    private int compiled = -1;
+
+    private CompiledMethod(MethodDeclaration md) {
+        this.md = md;
+    }
+
+    /**
+     * Compile the body of a method, unless it has not changed since it was last compiled.
+     * @param md the method that is about to be executed
+     */
+    static void compile(MethodDeclaration md) {
+        CompiledMethod method = md.containsData(METHOD) ? md.getData(METHOD) : null;
+        if (method == null || method.md != md) {
+            method = new CompiledMethod(md);
+            md.register(method, Node.ObserverRegistrationMode.SELF_PROPAGATING);
+            md.setData(METHOD, method);
+        }
+        if (method.compiled != method.version) {
+            md.getBody().ifPresent(method::compile);
+            method.compiled = method.version;
+        }
+    }
+
+    /**
+     * @return the step for the statement, or null if it has to be interpreted
+     */
+    static Step step(Statement stmt) {
+        return stmt.containsData(STEP) ? stmt.getData(STEP).current(stmt) : null;
+    }
+
+    /**
+     * @return the step for the expression, or null if it has to be interpreted
+     */
+    static Operand operand(Expression expr) {
+        return expr.containsData(OPERAND) ? expr.getData(OPERAND).current(expr) : null;
+    }
+
+    /**
+     * Children are visited before their parents so that their steps are ready to be bound.
+     */
+    private void compile(BlockStmt body) {
+        new TreeVisitor() {
+            @Override
+            public void process(Node node) {
+                if (node instanceof Statement stmt) {
+                    stmt.setData(STEP, new Compiled<>(CompiledMethod.this, version, stmt, compile(stmt)));
+                } else if (node instanceof Expression expr) {
+                    expr.setData(OPERAND, new Compiled<>(CompiledMethod.this, version, expr, compile(expr)));
+                }
+            }
+        }.visitPostOrder(body);
+    }
+
+    private static Step compile(Statement stmt) {
+        return switch (stmt) {
+            case ExpressionStmt expressionStmt -> {
+                Operand operand = expressionStmt.getExpression().getData(OPERAND).code();
+                yield operand::evaluate;
+            }
+            case IfStmt ifStmt -> eval -> eval.ifThenElseBlock(ifStmt);
+            case BlockStmt blockStmt -> eval -> eval.executeBlock(blockStmt.getStatements());
+            case ReturnStmt ignored -> eval -> eval.returnValue = eval.executeReturnStatement(stmt);
+            default -> eval -> eval.interpretStatement(stmt);
+        };
+    }
+
+    private static Operand compile(Expression expr) {
+        return switch (expr) {
+            case NameExpr nameExpr -> {
+                String name = nameExpr.getNameAsString();
+                yield eval -> eval.getValue(expr, name);
+            }
+            case MethodCallExpr methodCall -> eval -> eval.evaluateMethodCall(methodCall);
+            case LiteralExpr literal -> eval -> Evaluator.evaluateLiteral(literal);
+            case BinaryExpr binaryExpr -> {
+                BinaryExpr.Operator operator = binaryExpr.getOperator();
+                Expression left = binaryExpr.getLeft();
+                Expression right = binaryExpr.getRight();
+                yield eval -> eval.evaluateBinaryExpression(operator, left, right);
+            }
+            case ObjectCreationExpr oce -> eval -> eval.createObject(expr, null, oce);
+            case EnclosedExpr enclosedExpr -> enclosedExpr.getInner().getData(OPERAND).code();
+            case CastExpr castExpr -> castExpr.getExpression().getData(OPERAND).code();
+            default -> eval -> eval.interpretExpression(expr);
+        };
+    }
+
+    @Override
+    public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+        version++;
+    }
+
+    @Override
+    public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+        version++;
+    }
+
+    @Override
+    public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+        version++;
+    }
+
+    @Override
+    public void parentChange(Node observedNode, Node previousParent, Node newParent) {
+        version++;
+    }
+}
@@ -1,5 +1,6 @@
 package sa.com.cloudsolutions.antikythera.evaluator;
 
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.body.BodyDeclaration;
 import com.github.javaparser.ast.body.CallableDeclaration;
@@ -29,6 +30,9 @@ import com.github.javaparser.ast.expr.*;
 
 import com.github.javaparser.ast.stmt.BlockStmt;
 import com.github.javaparser.ast.stmt.Statement;
+import com.github.javaparser.ast.stmt.BreakStmt;
+import com.github.javaparser.ast.stmt.ExpressionStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.ast.type.Type;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
@@ -46,9 +50,11 @@ import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import sa.com.cloudsolutions.antikythera.finch.Finch;
 import sa.com.cloudsolutions.antikythera.exception.EvaluatorException;
+import sa.com.cloudsolutions.antikythera.exception.ExecutionBudgetException;
 import sa.com.cloudsolutions.antikythera.exception.GeneratorException;
 import sa.com.cloudsolutions.antikythera.depsolver.ClassProcessor;
 import sa.com.cloudsolutions.antikythera.parser.Callable;
+import sa.com.cloudsolutions.antikythera.parser.ClassLookup;
 import sa.com.cloudsolutions.antikythera.parser.ImportWrapper;
 import sa.com.cloudsolutions.antikythera.parser.MCEWrapper;
 
@@ -65,6 +71,7 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -78,13 +85,22 @@ import static org.mockito.Mockito.withSettings;
  */
 public class Evaluator {
     private static final Logger logger = LoggerFactory.getLogger(Evaluator.class);
+    private static final DataKey<LiteralValue> LITERAL_VALUE = new DataKey<>() {};
+
+    /**
+     * The value of a literal together with the text that it was parsed from.
+     */
+    private record LiteralValue(String text, Object value) {}
     /**
      * <p>Local variables.</p>
      *
      * <p>These are specific to a block statement. A block statement may also be an
-     * entire method. The primary key will be the hashcode of the block statement.</p>
+     * entire method. The primary key is the block statement itself, compared by identity
+     * because the hashcode of a node is computed from its whole subtree and two blocks with
+     * the same code are not the same scope. Variables that do not belong to any block are
+     * kept under the null key.</p>
      */
-    private final Map<Integer, Map<String, Variable>> locals ;
+    private final Map<BlockStmt, Map<String, Variable>> locals ;
 
     /**
      * The fields that were encountered in the current class.
@@ -119,14 +135,20 @@ public class Evaluator {
      */
     protected final Map<MethodDeclaration, Set<Expression>> preConditions = new HashMap<>();
 
+    /**
+     * True if methods are compiled before they are executed. See {@link CompiledMethod}
+     */
+    private final boolean compileMethods = Settings.getProperty("compile_methods", Boolean.class).orElse(false);
+
     public Evaluator (String className) {
         this.className = className;
         cu = AntikytheraRunTime.getCompilationUnit(className);
-        locals = new HashMap<>();
+        locals = new IdentityHashMap<>();
         fields = new HashMap<>();
+        ExecutionMonitor.evaluatorCreated();
         Finch.loadFinches();
         if (cu != null) {
-            this.setupFields(cu);
+            this.initializeFields(cu);
         }
     }
 
@@ -158,60 +180,56 @@ public class Evaluator {
      * @return the result as a Variable instance which can be null if the expression is supposed to return null
      */
     public Variable evaluateExpression(Expression expr) throws ReflectiveOperationException {
-        if (expr.isNameExpr()) {
-            String name = expr.asNameExpr().getNameAsString();
-            return getValue(expr, name);
-        } else if (expr.isMethodCallExpr()) {
+        if (compileMethods) {
+            CompiledMethod.Operand operand = CompiledMethod.operand(expr);
+            if (operand != null) {
+                return operand.evaluate(this);
+            }
+        }
+        return interpretExpression(expr);
+    }
 
+    Variable interpretExpression(Expression expr) throws ReflectiveOperationException {
+        /*
+         * The same nodes are evaluated again and again when a method is executed repeatedly. The
+         * type switch still tests the case labels in order, so the most common kinds of node come
+         * first. Only the values of literals are worked out once and kept.
+         */
+        return switch (expr) {
+            case NameExpr nameExpr -> getValue(expr, nameExpr.getNameAsString());
             /*
              * Method calls are the toughest nuts to crack. Some method calls will be from the Java api
              * or from other libraries. Or from classes that have not been compiled.
              */
-            MethodCallExpr methodCall = expr.asMethodCallExpr();
-            return evaluateMethodCall(methodCall);
-
-        } else if (expr.isLiteralExpr()) {
+            case MethodCallExpr methodCall -> evaluateMethodCall(methodCall);
             /*
              * Literal expressions are the easiest.
              */
-            return evaluateLiteral(expr);
-
-        } else if (expr.isVariableDeclarationExpr()) {
+            case LiteralExpr literal -> evaluateLiteral(literal);
             /*
              * Variable declarations are hard and deserve their own method.
              */
-            return evaluateVariableDeclaration(expr);
-        } else if (expr.isBinaryExpr()) {
+            case VariableDeclarationExpr ignored -> evaluateVariableDeclaration(expr);
             /*
              * Binary expressions can also be difficult
              */
-            return evaluateBinaryExpression(expr.asBinaryExpr());
-        } else if (expr.isUnaryExpr()) {
-            return  evaluateUnaryExpression(expr);
-        } else if (expr.isAssignExpr()) {
-            return evaluateAssignment(expr);
-        } else if (expr.isObjectCreationExpr()) {
-            return createObject(expr, null, expr.asObjectCreationExpr());
-        } else if(expr.isFieldAccessExpr()) {
-            return evaluateFieldAccessExpression(expr);
-        } else if(expr.isArrayInitializerExpr()) {
+            case BinaryExpr binaryExpr -> evaluateBinaryExpression(binaryExpr);
+            case UnaryExpr ignored -> evaluateUnaryExpression(expr);
+            case AssignExpr ignored -> evaluateAssignment(expr);
+            case ObjectCreationExpr oce -> createObject(expr, null, oce);
+            case FieldAccessExpr ignored -> evaluateFieldAccessExpression(expr);
             /*
              * Array Initialization is tricky
              */
-            ArrayInitializerExpr arrayInitializerExpr = expr.asArrayInitializerExpr();
-            return createArray(arrayInitializerExpr);
-
-        } else if(expr.isEnclosedExpr()) {
+            case ArrayInitializerExpr arrayInitializerExpr -> createArray(arrayInitializerExpr);
             /*
              * Enclosed expressions are just brackets around stuff.
              */
-            return evaluateExpression(expr.asEnclosedExpr().getInner());
-        } else if(expr.isCastExpr()) {
-            return evaluateExpression(expr.asCastExpr().getExpression());
-        } else if (expr.isConditionalExpr()) {
-            return evaluateConditionalExpression(expr.asConditionalExpr());
-        }
-        return null;
+            case EnclosedExpr enclosedExpr -> evaluateExpression(enclosedExpr.getInner());
+            case CastExpr castExpr -> evaluateExpression(castExpr.getExpression());
+            case ConditionalExpr conditionalExpr -> evaluateConditionalExpression(conditionalExpr);
+            default -> null;
+        };
     }
 
     private Variable evaluateBinaryExpression(BinaryExpr binaryExpr) throws ReflectiveOperationException {
@@ -321,7 +339,7 @@ public class Evaluator {
                     /*
                      * Use class loader
                      */
-                    Class<?> clazz = Class.forName(fullName);
+                    Class<?> clazz = AbstractCompiler.loadClass(fullName);
                     Field field = clazz.getDeclaredField(fae.getNameAsString());
                     field.setAccessible(true);
                     return new Variable(field.get(null));
@@ -365,26 +383,47 @@ public class Evaluator {
         return null;
     }
 
-    private static Variable evaluateLiteral(Expression expr) throws EvaluatorException {
-        return switch (expr) {
-            case BooleanLiteralExpr booleanLiteralExpr ->
-                new Variable(AbstractCompiler.convertLiteralToType(booleanLiteralExpr), booleanLiteralExpr.getValue());
-            case DoubleLiteralExpr doubleLiteralExpr ->
-                new Variable(AbstractCompiler.convertLiteralToType(doubleLiteralExpr), Double.parseDouble(doubleLiteralExpr.getValue()));
-            case IntegerLiteralExpr integerLiteralExpr ->
-                new Variable(AbstractCompiler.convertLiteralToType(integerLiteralExpr), Integer.parseInt(integerLiteralExpr.getValue()));
-            case StringLiteralExpr stringLiteralExpr ->
-                new Variable(AbstractCompiler.convertLiteralToType(stringLiteralExpr), stringLiteralExpr.getValue());
-            case CharLiteralExpr charLiteralExpr ->
-                new Variable(AbstractCompiler.convertLiteralToType(charLiteralExpr), charLiteralExpr.getValue());
+    static Variable evaluateLiteral(Expression expr) throws EvaluatorException {
+        if (expr instanceof LiteralExpr literal) {
+            if (literal instanceof NullLiteralExpr) {
+                return new Variable(null);
+            }
+            Object value = literalValue(literal);
+            return literal instanceof LongLiteralExpr
+                    ? new Variable(value)
+                    : new Variable(AbstractCompiler.convertLiteralToType(literal), value);
+        }
+        throw new EvaluatorException("Unknown literal expression %s".formatted(expr));
+    }
+
+    /**
+     * The value of a literal is worked out once and kept with the node, until the text of the
+     * literal is changed. The values are all immutable so they can be shared between evaluations.
+     */
+    private static Object literalValue(LiteralExpr literal) throws EvaluatorException {
+        if (literal instanceof BooleanLiteralExpr booleanLiteralExpr) {
+            return booleanLiteralExpr.getValue();
+        }
+        String text = ((LiteralStringValueExpr) literal).getValue();
+        if (literal.containsData(LITERAL_VALUE)) {
+            LiteralValue cached = literal.getData(LITERAL_VALUE);
+            if (text.equals(cached.text())) {
+                return cached.value();
+            }
+        }
+        Object value = switch (literal) {
+            case DoubleLiteralExpr doubleLiteralExpr -> Double.parseDouble(doubleLiteralExpr.getValue());
+            case IntegerLiteralExpr integerLiteralExpr -> Integer.parseInt(integerLiteralExpr.getValue());
+            case StringLiteralExpr stringLiteralExpr -> stringLiteralExpr.getValue();
+            case CharLiteralExpr charLiteralExpr -> charLiteralExpr.getValue();
             case LongLiteralExpr longLiteralExpr -> {
-                String value = longLiteralExpr.getValue();
-                yield new Variable(Long.parseLong(value.endsWith("L") ? value.replaceFirst("L", "") : value));
+                String digits = longLiteralExpr.getValue();
+                yield Long.parseLong(digits.endsWith("L") ? digits.replaceFirst("L", "") : digits);
             }
-            case NullLiteralExpr nullLiteralExpr ->
-                new Variable(null);
-            default -> throw new EvaluatorException("Unknown literal expression %s".formatted(expr));
+            default -> throw new EvaluatorException("Unknown literal expression %s".formatted(literal));
         };
+        literal.setData(LITERAL_VALUE, new LiteralValue(text, value));
+        return value;
     }
 
     @SuppressWarnings("java:S3011")
@@ -536,6 +575,8 @@ public class Evaluator {
                 // Create the dynamic DTO with the extracted arguments
                 Object instance = DTOBuddy.createDynamicDTO(type, constructorArgs);
                 return new Variable(type, instance);
+            } catch (ExecutionBudgetException e) {
+                throw e;
             } catch (Exception e) {
                 logger.error("An error occurred in creating a variable with bytebuddy", e);
             }
@@ -667,6 +708,8 @@ public class Evaluator {
                 throw new EvaluatorException("Could not find a constructor for class " + clazz.getName());
             }
 
+        } catch (ExecutionBudgetException e) {
+            throw e;
         } catch (Exception e) {
             logger.warn("Could not create an instance of type {} using reflection", type);
             logger.warn("The error was {}", e.getMessage());
@@ -689,8 +732,7 @@ public class Evaluator {
 
         while (n != null) {
             BlockStmt block = findBlockStatement(n);
-            int hash = (block != null) ? block.hashCode() : 0;
-            if (hash == 0) {
+            if (block == null) {
                 for(Map<String, Variable> entry : locals.values()) {
                     Variable v = entry.get(name);
                     if (v != null) {
@@ -700,7 +742,7 @@ public class Evaluator {
                 break;
             }
             else {
-                Map<String, Variable> localsVars = this.locals.get(hash);
+                Map<String, Variable> localsVars = this.locals.get(block);
 
                 if (localsVars != null) {
                     Variable v = localsVars.get(name);
@@ -708,8 +750,7 @@ public class Evaluator {
                         return v;
                 }
                 if (n instanceof MethodDeclaration) {
-                    localsVars = this.locals.get(hash);
-                    return localsVars == null ? null : localsVars.get(name);
+                    return null;
                 }
 
                 n = block.getParentNode().orElse(null);
@@ -733,9 +774,8 @@ public class Evaluator {
         }
         else {
             BlockStmt block = findBlockStatement(node);
-            int hash = (block != null) ? block.hashCode() : 0;
 
-            Map<String, Variable> localVars = this.locals.computeIfAbsent(hash, k -> new HashMap<>());
+            Map<String, Variable> localVars = this.locals.computeIfAbsent(block, k -> new HashMap<>());
             localVars.put(nameAsString, v);
         }
     }
@@ -776,13 +816,11 @@ public class Evaluator {
      *          feature is not yet implemented.
      */
     public Variable evaluateMethodCall(MethodCallExpr methodCall) throws ReflectiveOperationException {
-        Optional<Expression> scoped = methodCall.getScope();
-        if (scoped.isPresent() && scoped.get().toString().equals("logger")) {
+        ScopeChain chain = ScopeChain.of(methodCall);
+        if (chain.isLogger()) {
             return null;
         }
 
-        LinkedList<Expression> chain = Evaluator.findScopeChain(methodCall);
-
         if (chain.isEmpty()) {
             MCEWrapper wrapper = wrapCallExpression(methodCall);
             return executeLocalMethod(wrapper);
@@ -793,51 +831,44 @@ public class Evaluator {
         return evaluateMethodCall(variable, methodCall);
     }
 
-    public Variable evaluateScopeChain(LinkedList<Expression> chain) throws ReflectiveOperationException {
+    Variable evaluateScopeChain(ScopeChain chain) throws ReflectiveOperationException {
         Variable variable = null;
-        while(!chain.isEmpty()) {
-            Expression expr2 = chain.pollLast();
-            if (expr2.isNameExpr()) {
-                variable = resolveExpression(expr2.asNameExpr());
-            }
-            else if(expr2.isFieldAccessExpr() && variable != null) {
-                /*
-                 * When we get here the getValue should have returned to us a valid field. That means
-                 * we will have an evaluator instance as the 'value' in the variable v
-                 */
-                if (variable.getClazz() != null && variable.getClazz().equals(System.class)) {
-                    Field field = System.class.getField(expr2.asFieldAccessExpr().getNameAsString());
-                    variable = new Variable(field.get(null));
-                }
-                else if (variable.getValue() instanceof Evaluator eval) {
-                    variable = eval.getValue(expr2, expr2.asFieldAccessExpr().getNameAsString());
-                }
-                else {
-                    if (variable.getValue() instanceof Evaluator eval) {
-                        variable = eval.evaluateFieldAccessExpression(expr2.asFieldAccessExpr());
-                    }
-                    else {
-                        variable = evaluateFieldAccessExpression(expr2.asFieldAccessExpr());
+        for (int i = 0; i < chain.size(); i++) {
+            Expression expr2 = chain.get(i);
+            switch (chain.getKind(i)) {
+                case NAME -> variable = resolveExpression(expr2.asNameExpr());
+                case FIELD -> {
+                    if (variable != null) {
+                        variable = evaluateScopedField(variable, expr2, chain.getName(i));
                     }
                 }
-            }
-            else if(expr2.isMethodCallExpr()) {
-                variable = evaluateMethodCall(variable, expr2.asMethodCallExpr());
-            }
-            else if (expr2.isLiteralExpr()) {
-                variable = evaluateLiteral(expr2);
-            }
-            else if (expr2.isThisExpr()) {
-                variable = new Variable(this);
-            }
-            else if (expr2.isTypeExpr()) {
-                String s = expr2.toString();
-                variable = new Variable(findScopeType(s));
+                case METHOD -> variable = evaluateMethodCall(variable, expr2.asMethodCallExpr());
+                case LITERAL -> variable = evaluateLiteral(expr2);
+                case THIS -> variable = new Variable(this);
+                case TYPE -> variable = new Variable(findScopeType(chain.getName(i)));
+                default -> {
+                    // not a scope that can be evaluated, the variable is left as it is.
+                }
             }
         }
         return variable;
     }
 
+    private Variable evaluateScopedField(Variable variable, Expression expr2, String name) throws ReflectiveOperationException {
+        /*
+         * When we get here the getValue should have returned to us a valid field. That means
+         * we will have an evaluator instance as the 'value' in the variable v
+         */
+        if (variable.getClazz() != null && variable.getClazz().equals(System.class)) {
+            Field field = System.class.getField(name);
+            return new Variable(field.get(null));
+        }
+        else if (variable.getValue() instanceof Evaluator eval) {
+            return eval.getValue(expr2, name);
+        }
+        return evaluateFieldAccessExpression(expr2.asFieldAccessExpr());
+    }
+
     @SuppressWarnings("java:S106")
     private Object findScopeType(String s) {
         return switch (s) {
@@ -880,7 +911,7 @@ public class Evaluator {
                 }
                 else {
                     Evaluator eval = EvaluatorFactory.create(fullyQualifiedName, this);
-                    eval.setupFields(AntikytheraRunTime.getCompilationUnit(fullyQualifiedName));
+                    eval.initializeFields(AntikytheraRunTime.getCompilationUnit(fullyQualifiedName));
                     v = new Variable(eval);
                 }
             }
@@ -904,14 +935,16 @@ public class Evaluator {
     }
 
     Variable reflectiveMethodCall(Variable v, ReflectionArguments reflectionArguments) throws ReflectiveOperationException {
+        ExecutionMonitor.reflectiveCall();
         Method method = Reflect.findAccessibleMethod(v.getClazz(), reflectionArguments);
         validateReflectiveMethod(v, reflectionArguments, method);
         Object[] finalArgs = Reflect.buildObjects(reflectionArguments, method);
+        Method invocable = ReflectionCache.getInvocable(v.getClazz(), method);
 
        try {
-           returnValue = new Variable(method.invoke(v.getValue(), finalArgs));
+           returnValue = new Variable(invocable.invoke(v.getValue(), finalArgs));
            if (returnValue.getValue() == null && returnValue.getClazz() == null) {
-               returnValue.setClazz(method.getReturnType());
+               returnValue.setClazz(invocable.getReturnType());
            }
 
        } catch (IllegalAccessException e) {
@@ -933,6 +966,9 @@ public class Evaluator {
     private void invokeinAccessibleMethod(Variable v, ReflectionArguments reflectionArguments, Method method) throws ReflectiveOperationException {
         Object[] finalArgs = Reflect.buildObjects(reflectionArguments, method);
         try {
+            /*
+             * The method is shared through the ReflectionCache so it stays accessible for later calls
+             */
             method.setAccessible(true);
 
             returnValue = new Variable(method.invoke(v.getValue(), finalArgs));
@@ -943,6 +979,7 @@ public class Evaluator {
             // If module access fails, try to find a public interface or superclass method
             Method publicMethod = Reflect.findPublicMethod(v.getClazz(), reflectionArguments.getMethodName(), reflectionArguments.getArgumentTypes());
             if (publicMethod != null) {
+                ReflectionCache.putInvocable(v.getClazz(), method, publicMethod);
                 returnValue = new Variable(publicMethod.invoke(v.getValue(), finalArgs));
                 if (returnValue.getValue() == null && returnValue.getClazz() == null) {
                     returnValue.setClazz(publicMethod.getReturnType());
@@ -1050,12 +1087,11 @@ public class Evaluator {
     }
 
     static Class<?> getClass(String className) {
-        try {
-            return Class.forName(className);
-        } catch (ClassNotFoundException e) {
+        Optional<Class<?>> cls = ClassLookup.findClass(className);
+        if (cls.isEmpty()) {
             logger.info("Could not find class {}", className);
         }
-        return null;
+        return cls.orElse(null);
     }
 
     Variable evaluateBinaryExpression(BinaryExpr.Operator operator,
@@ -1104,7 +1140,7 @@ public class Evaluator {
         return v;
     }
 
-    public Map<Integer, Map<String, Variable>> getLocals() {
+    public Map<BlockStmt, Map<String, Variable>> getLocals() {
         return locals;
     }
 
@@ -1183,7 +1219,7 @@ public class Evaluator {
                         String cname = importedName.toString().substring(0, last);
                         CompilationUnit dep = AntikytheraRunTime.getCompilationUnit(cname);
                         Evaluator eval = EvaluatorFactory.create(cname, this);
-                        eval.setupFields(dep);
+                        eval.initializeFields(dep);
                         v = eval.getFields().get(name);
                         break;
                     }
@@ -1265,6 +1301,7 @@ public class Evaluator {
 
             List<Statement> statements = md.getBody().orElseThrow().getStatements();
             setupParameters(md);
+            compile(md);
 
             executeBlock(statements);
 
@@ -1273,6 +1310,16 @@ public class Evaluator {
         return null;
     }
 
+    /**
+     * Compile the method if that has been asked for in the configuration.
+     * @param md the method that is about to be executed
+     */
+    protected void compile(MethodDeclaration md) {
+        if (compileMethods) {
+            CompiledMethod.compile(md);
+        }
+    }
+
     protected boolean setupParameters(MethodDeclaration md) {
         NodeList<Parameter> parameters = md.getParameters();
         ArrayList<Boolean> missing = new ArrayList<>();
@@ -1362,77 +1409,76 @@ public class Evaluator {
      * @throws Exception if the execution fails.
      */
     void executeStatement(Statement stmt) throws Exception {
-        if (stmt.isExpressionStmt()) {
+        ExecutionMonitor.statement();
+        if (compileMethods) {
+            CompiledMethod.Step step = CompiledMethod.step(stmt);
+            if (step != null) {
+                step.execute(this);
+                return;
+            }
+        }
+        interpretStatement(stmt);
+    }
+
+    @SuppressWarnings("java:S112")
+    void interpretStatement(Statement stmt) throws Exception {
+        switch (stmt) {
             /*
              * A line of code that is an expression. The expression itself can fall into various different
              * categories, and we let the evaluateExpression method take care of all that
              */
-            evaluateExpression(stmt.asExpressionStmt().getExpression());
-
-        } else if (stmt.isIfStmt()) {
+            case ExpressionStmt expressionStmt -> evaluateExpression(expressionStmt.getExpression());
             /*
              * If then Else are all treated together
              */
-            ifThenElseBlock(stmt.asIfStmt());
-
-        } else if (stmt.isTryStmt()) {
+            case IfStmt ifStmt -> ifThenElseBlock(ifStmt);
             /*
              * Try takes a bit of trying
              */
-            catching.addLast(stmt.asTryStmt());
-            executeBlock(stmt.asTryStmt().getTryBlock().getStatements());
-        } else if (stmt.isThrowStmt()) {
+            case TryStmt tryStmt -> {
+                catching.addLast(tryStmt);
+                executeBlock(tryStmt.getTryBlock().getStatements());
+            }
             /*
              * Throw is tricky because we need to distinguish between what exceptions were raised by
              * issues in Antikythera and what are exceptions that are part of the application
              */
-            executeThrow(stmt);
-        } else if (stmt.isReturnStmt()) {
+            case ThrowStmt ignored -> executeThrow(stmt);
             /*
              * When returning we need to know if a value has been returned.
              */
-            returnValue = executeReturnStatement(stmt);
-
-        } else if (stmt.isForStmt()) {
+            case ReturnStmt ignored -> returnValue = executeReturnStatement(stmt);
             /*
              * Traditional for loop
              */
-            executeForLoop(stmt.asForStmt());
-        } else if (stmt.isForEachStmt()) {
+            case ForStmt forStmt -> executeForLoop(forStmt);
             /*
              * Python style for each
              */
-            executeForEach(stmt);
-        } else if (stmt.isDoStmt()) {
+            case ForEachStmt ignored -> executeForEach(stmt);
             /*
              * It may not be used all that much but we still have to support do while.
              */
-            executeDoWhile(stmt.asDoStmt());
-
-        } else if(stmt.isSwitchStmt()) {
-            SwitchStmt switchExpr = stmt.asSwitchStmt();
-            System.out.println("switch missing");
-        } else if(stmt.isWhileStmt()) {
+            case DoStmt doStmt -> executeDoWhile(doStmt);
+            case SwitchStmt ignored -> System.out.println("switch missing");
             /*
              * Old fashioned while statement
              */
-            executeWhile(stmt.asWhileStmt());
-
-        } else if (stmt.isBlockStmt()) {
+            case WhileStmt whileStmt -> executeWhile(whileStmt);
             /*
              * in C like languages it's possible to have a block that is not directly
              * associated with a condtional, loop or method etc.
              */
-            executeBlock(stmt.asBlockStmt().getStatements());
-        } else if (stmt.isBreakStmt()) {
+            case BlockStmt blockStmt -> executeBlock(blockStmt.getStatements());
             /*
              * Breaking means signalling that the loop has to be ended for that we keep a stack
              * in with a flag for all the loops that are in our trace
              */
-            loops.pollLast();
-            loops.addLast(Boolean.FALSE);
-        } else {
-            logger.info("Unhandled statement: {}", stmt);
+            case BreakStmt ignored -> {
+                loops.pollLast();
+                loops.addLast(Boolean.FALSE);
+            }
+            default -> logger.info("Unhandled statement: {}", stmt);
         }
     }
 
@@ -1444,6 +1490,7 @@ public class Evaluator {
         evaluateExpression(forEachStmt.getVariable());
 
         for(int i = 0 ; i < Array.getLength(arr) ; i++) {
+            ExecutionMonitor.iteration(i);
             Object value = Array.get(arr, i);
             for(VariableDeclarator vdecl : forEachStmt.getVariable().getVariables()) {
                 Variable v = getLocal(forEachStmt, vdecl.getNameAsString());
@@ -1478,8 +1525,10 @@ public class Evaluator {
                 evaluateExpression(vdecl);
             }
         }
+        long iteration = 0;
         while ((boolean) evaluateExpression(forStmt.getCompare().orElseThrow()).getValue() &&
                 Boolean.TRUE.equals(loops.peekLast())) {
+            ExecutionMonitor.iteration(iteration++);
             executeBlock(forStmt.getBody().asBlockStmt().getStatements());
             for (Node n : forStmt.getUpdate()) {
                 if(n instanceof Expression e) {
@@ -1492,7 +1541,9 @@ public class Evaluator {
 
     private void executeDoWhile(DoStmt whileStmt) throws ReflectiveOperationException {
         loops.push(true);
+        long iteration = 0;
         do {
+            ExecutionMonitor.iteration(iteration++);
             executeBlock(whileStmt.getBody().asBlockStmt().getStatements());
         } while((boolean)evaluateExpression(whileStmt.getCondition()).getValue() && Boolean.TRUE.equals(loops.peekLast()));
         loops.pollLast();
@@ -1506,7 +1557,9 @@ public class Evaluator {
      */
     private void executeWhile(WhileStmt whileStmt) throws ReflectiveOperationException {
         loops.push(true);
+        long iteration = 0;
         while((boolean)evaluateExpression(whileStmt.getCondition()).getValue() && Boolean.TRUE.equals(loops.peekLast())) {
+            ExecutionMonitor.iteration(iteration++);
             executeBlock(whileStmt.getBody().asBlockStmt().getStatements());
         }
         loops.pollLast();
@@ -1568,6 +1621,29 @@ public class Evaluator {
         return returnValue;
     }
 
+    /**
+     * Set up the fields, from a snapshot taken for an earlier instance of the same class where
+     * that gives the same outcome, otherwise by visiting the compilation unit.
+     * @param cu the compilation unit of the class
+     */
+    void initializeFields(CompilationUnit cu) {
+        if (!isFieldStateShareable()) {
+            setupFields(cu);
+        }
+        else if (!FieldSnapshot.restore(this, cu)) {
+            setupFields(cu);
+            FieldSnapshot.capture(this, cu);
+        }
+    }
+
+    /**
+     * @return true if the fields set up for one instance can be given to the next instance of the
+     *      same class. See {@link FieldSnapshot}
+     */
+    protected boolean isFieldStateShareable() {
+        return true;
+    }
+
     private void setupFields(CompilationUnit cu)  {
         cu.accept(new ControllerFieldVisitor(), null);
     }
@@ -1643,6 +1719,8 @@ public class Evaluator {
 
                 logger.error("Exception while processing fields\n\t\t{}", e.getMessage());
 
+            } catch (ExecutionBudgetException e) {
+                throw e;
             } catch (AntikytheraException|ReflectiveOperationException e) {
                 throw new GeneratorException(e);
             }
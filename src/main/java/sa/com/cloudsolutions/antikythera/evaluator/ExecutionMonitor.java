@@ -0,0 +1,246 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.exception.ExecutionBudgetException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Keeps each method evaluation within a budget and counts the work that goes into it.</p>
+ *
+ * Generated inputs sometimes turn a loop into one that never ends, which would stall the whole
+ * run. An evaluation is abandoned with an {@link ExecutionBudgetException} once it has executed
+ * too many statements, gone round a single loop too many times or taken too long. The limits are
+ * read from the execution_budget section of the configuration:
+ * <pre>
+ * execution_budget:
+ *   max_statements: 1000000
+ *   max_loop_iterations: 100000
+ *   max_millis: 60000
+ * </pre>
+ * A limit of zero or less means no limit.
+ *
+ * The statements executed, the loop iterations, the reflective calls, the evaluators created and
+ * the time taken are recorded against the method being evaluated so that the methods that take
+ * up most of the time can be identified at the end of the run. Work done while no evaluation is
+ * in progress is neither limited nor recorded. The number of branch outcomes reached out of all
+ * those in the method is recorded after the last evaluation of a method.
+ */
+public final class ExecutionMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutionMonitor.class);
+    private static final String BUDGET = "execution_budget.";
+    private static final long DEFAULT_MAX_STATEMENTS = 1_000_000;
+    private static final long DEFAULT_MAX_LOOP_ITERATIONS = 100_000;
+    private static final long DEFAULT_MAX_MILLIS = 60_000;
+    /**
+     * The clock is only read once in this many statements.
+     */
+    private static final int CLOCK_INTERVAL = 256;
+
+    private static final Map<String, Counters> counters = new LinkedHashMap<>();
+
+    private static Counters current;
+    private static long statements;
+    private static long maxStatements;
+    private static long maxLoopIterations;
+    private static long deadline;
+    private static long started;
+
+    private ExecutionMonitor() {}
+
+    /**
+     * Start keeping track of the evaluation of a method.
+     * @param method a name that identifies the method, it is used as the key for the counters
+     */
+    public static void begin(String method) {
+        current = counters.computeIfAbsent(method, k -> new Counters());
+        current.evaluations++;
+        statements = 0;
+        maxStatements = getLimit("max_statements", DEFAULT_MAX_STATEMENTS);
+        maxLoopIterations = getLimit("max_loop_iterations", DEFAULT_MAX_LOOP_ITERATIONS);
+        long maxMillis = getLimit("max_millis", DEFAULT_MAX_MILLIS);
+        started = System.nanoTime();
+        deadline = maxMillis > 0 ? started + maxMillis * 1_000_000 : 0;
+    }
+
+    /**
+     * Stop keeping track of the current evaluation.
+     */
+    public static void end() {
+        if (current != null) {
+            current.nanos += System.nanoTime() - started;
+            current = null;
+        }
+    }
+
+    private static long getLimit(String name, long defaultValue) {
+        Object value = Settings.getProperty(BUDGET + name);
+        return value instanceof Number n ? n.longValue() : defaultValue;
+    }
+
+    /**
+     * Called before each statement is executed.
+     * @throws ExecutionBudgetException if the evaluation has run out of statements or time
+     */
+    static void statement() {
+        if (current != null) {
+            current.statements++;
+            statements++;
+            if (maxStatements > 0 && statements > maxStatements) {
+                abandon("more than " + maxStatements + " statements executed");
+            }
+            if (deadline != 0 && statements % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                abandon("time limit exceeded");
+            }
+        }
+    }
+
+    /**
+     * Called at the start of each round of a loop.
+     * @param iteration the number of rounds completed so far by this loop
+     * @throws ExecutionBudgetException if the loop has gone round too many times
+     */
+    static void iteration(long iteration) {
+        if (current != null) {
+            current.loopIterations++;
+            if (maxLoopIterations > 0 && iteration >= maxLoopIterations) {
+                abandon("loop did not end after " + maxLoopIterations + " iterations");
+            }
+        }
+    }
+
+    static void reflectiveCall() {
+        if (current != null) {
+            current.reflectiveCalls++;
+        }
+    }
+
+    static void evaluatorCreated() {
+        if (current != null) {
+            current.evaluatorsCreated++;
+        }
+    }
+
+    /**
+     * Record the branch coverage achieved for a method.
+     * @param method the name used when the evaluations of the method were begun
+     * @param covered the number of outcomes of if statements that were reached
+     * @param branches the number of outcomes of all the if statements in the method
+     */
+    static void coverage(String method, int covered, int branches) {
+        Counters c = counters.computeIfAbsent(method, k -> new Counters());
+        c.branchesCovered = covered;
+        c.branches = branches;
+    }
+
+    private static void abandon(String reason) {
+        current.abandoned++;
+        current.reason = reason;
+        throw new ExecutionBudgetException(reason);
+    }
+
+    /**
+     * @return the counters for each method that has been evaluated, in the order that they were
+     *      first evaluated.
+     */
+    public static Map<String, Counters> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Log the counters of the methods, those that took the longest first.
+     */
+    public static void log() {
+        if (logger.isInfoEnabled() && !counters.isEmpty()) {
+            List<Map.Entry<String, Counters>> entries = new ArrayList<>(counters.entrySet());
+            entries.sort(Comparator.comparingLong((Map.Entry<String, Counters> e) -> e.getValue().nanos).reversed());
+            logger.info("Method, evaluations, branches covered, ms, statements, loop iterations, reflective calls, evaluators, abandoned");
+            for (Map.Entry<String, Counters> entry : entries) {
+                Counters c = entry.getValue();
+                logger.info("{}, {}, {}/{}, {}, {}, {}, {}, {}, {}{}", entry.getKey(), c.evaluations,
+                        c.branchesCovered, c.branches, c.nanos / 1_000_000,
+                        c.statements, c.loopIterations, c.reflectiveCalls, c.evaluatorsCreated, c.abandoned,
+                        c.reason == null ? "" : " (" + c.reason + ")");
+            }
+        }
+    }
+
+    /**
+     * Forget all the counters.
+     */
+    public static void reset() {
+        counters.clear();
+        current = null;
+    }
+
+    /**
+     * The work done in evaluating a single method, accumulated over all its evaluations.
+     */
+    public static class Counters {
+        private long evaluations;
+        private long nanos;
+        private long statements;
+        private long loopIterations;
+        private long reflectiveCalls;
+        private long evaluatorsCreated;
+        private long abandoned;
+        private String reason;
+        private int branches;
+        private int branchesCovered;
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getStatements() {
+            return statements;
+        }
+
+        public long getLoopIterations() {
+            return loopIterations;
+        }
+
+        public long getReflectiveCalls() {
+            return reflectiveCalls;
+        }
+
+        public long getEvaluatorsCreated() {
+            return evaluatorsCreated;
+        }
+
+        public long getAbandoned() {
+            return abandoned;
+        }
+
+        /**
+         * @return the number of outcomes of the if statements in the method
+         */
+        public int getBranches() {
+            return branches;
+        }
+
+        /**
+         * @return the number of outcomes of the if statements that were reached
+         */
+        public int getBranchesCovered() {
+            return branchesCovered;
+        }
+
+        /**
+         * @return the limit that was reached the last time an evaluation was abandoned, or null
+         */
+        public String getReason() {
+            return reason;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.InitializerDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.CastExpr;
+import com.github.javaparser.ast.expr.ClassExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.expr.EnclosedExpr;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.LiteralExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
+import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>The initialized fields of a class, captured the first time an evaluator for it is created.</p>
+ *
+ * Setting up the fields means visiting the whole compilation unit, evaluating the initializers
+ * and resolving the autowired dependencies. New evaluators are created for a class every time
+ * it is referred to by name or instantiated, and most of the time the outcome is exactly the
+ * same. Later evaluators for the same class are given a copy of the snapshot instead.
+ *
+ * A snapshot is only taken when doing so cannot change the outcome. The class must not have
+ * initializer blocks, and the initializer of every instance field must be a constant expression
+ * made of literals and references to static final fields, since anything else may have side
+ * effects that have to happen once for each instance. Every field must be static, autowired or
+ * hold an immutable value. Static and autowired fields are shared between all instances in any
+ * case. The others are copied, so assigning to a field of one instance does not affect another.
+ *
+ * The compilation unit is not held by the snapshot, which would keep evicted sources in memory.
+ * Instead each compilation unit is given a serial number the first time it is seen, and a
+ * snapshot is only used with the compilation unit that carries the same number. A file that is
+ * parsed again gets a new number. The copied fields are detached from the syntax tree as well.
+ *
+ * Snapshots are discarded when the state that field initialization depends on is reset.
+ */
+final class FieldSnapshot {
+    private static final DataKey<Integer> SERIAL = new DataKey<>() {};
+    private static final Map<Key, FieldSnapshot> snapshots = new HashMap<>();
+    private static int serials;
+
+    private final int serial;
+    private final int generation;
+    private final Map<String, Variable> shared;
+    private final Map<String, Variable> copied;
+
+    private FieldSnapshot(CompilationUnit cu, Map<String, Variable> shared, Map<String, Variable> copied) {
+        this.serial = serialOf(cu);
+        this.generation = AntikytheraRunTime.getGeneration();
+        this.shared = shared;
+        this.copied = copied;
+    }
+
+    /**
+     * Set up the fields of the evaluator from an earlier snapshot.
+     * @param evaluator the newly created evaluator
+     * @param cu the compilation unit for the class
+     * @return true if a snapshot was available, false if the fields have to be initialized
+     */
+    static boolean restore(Evaluator evaluator, CompilationUnit cu) {
+        FieldSnapshot snapshot = snapshots.get(new Key(evaluator.getClass(), evaluator.getClassName()));
+        if (snapshot == null || snapshot.serial != serialOf(cu) || snapshot.generation != AntikytheraRunTime.getGeneration()) {
+            return false;
+        }
+        evaluator.fields.putAll(snapshot.shared);
+        for (Map.Entry<String, Variable> entry : snapshot.copied.entrySet()) {
+            evaluator.fields.put(entry.getKey(), entry.getValue().copy());
+        }
+        return true;
+    }
+
+    /**
+     * Remember the fields of an evaluator that has just been initialized, if that is safe.
+     * @param evaluator the evaluator whose fields have been set up
+     * @param cu the compilation unit for the class
+     */
+    static void capture(Evaluator evaluator, CompilationUnit cu) {
+        Key key = new Key(evaluator.getClass(), evaluator.getClassName());
+        if (hasInitializers(cu, evaluator.getClassName()) || !hasConstantFields(cu, evaluator.getClassName())) {
+            snapshots.remove(key);
+            return;
+        }
+        Map<String, Variable> shared = new HashMap<>();
+        Map<String, Variable> copied = new HashMap<>();
+        for (Map.Entry<String, Variable> entry : evaluator.fields.entrySet()) {
+            Variable v = entry.getValue();
+            if (v.isStatic() || AntikytheraRunTime.isAutoWired(v)) {
+                shared.put(entry.getKey(), v);
+            } else if (isImmutable(v.getValue())) {
+                copied.put(entry.getKey(), detach(v.copy()));
+            } else {
+                snapshots.remove(key);
+                return;
+            }
+        }
+        snapshots.put(key, new FieldSnapshot(cu, shared, copied));
+    }
+
+    private static int serialOf(CompilationUnit cu) {
+        if (!cu.containsData(SERIAL)) {
+            cu.setData(SERIAL, ++serials);
+        }
+        return cu.getData(SERIAL);
+    }
+
+    /**
+     * Replace the type and the initializer of a copied field with clones that do not belong to
+     * the compilation unit.
+     */
+    private static Variable detach(Variable v) {
+        if (v.getType() != null && v.getType().getParentNode().isPresent()) {
+            v.setType(v.getType().clone());
+        }
+        if (v.getInitializer() != null && v.getInitializer().getParentNode().isPresent()) {
+            v.setInitializer(v.getInitializer().clone());
+        }
+        return v;
+    }
+
+    private static String owner(Node node) {
+        return node.findAncestor(ClassOrInterfaceDeclaration.class)
+                .flatMap(ClassOrInterfaceDeclaration::getFullyQualifiedName).orElse(null);
+    }
+
+    private static boolean hasInitializers(CompilationUnit cu, String className) {
+        for (InitializerDeclaration init : cu.findAll(InitializerDeclaration.class)) {
+            if (className.equals(owner(init))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if none of the instance fields of the class has an initializer that may have
+     *      side effects or give a different value each time it is evaluated
+     */
+    private static boolean hasConstantFields(CompilationUnit cu, String className) {
+        for (FieldDeclaration field : cu.findAll(FieldDeclaration.class)) {
+            if (!field.isStatic() && className.equals(owner(field))) {
+                for (VariableDeclarator variable : field.getVariables()) {
+                    Optional<Expression> init = variable.getInitializer();
+                    if (init.isPresent() && !isConstant(init.get(), field, cu)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isConstant(Expression expr, FieldDeclaration field, CompilationUnit cu) {
+        return switch (expr) {
+            case LiteralExpr ignored -> true;
+            case ClassExpr ignored -> true;
+            case EnclosedExpr enclosed -> isConstant(enclosed.getInner(), field, cu);
+            case CastExpr cast -> isConstant(cast.getExpression(), field, cu);
+            case UnaryExpr unary -> switch (unary.getOperator()) {
+                case PREFIX_INCREMENT, PREFIX_DECREMENT, POSTFIX_INCREMENT, POSTFIX_DECREMENT -> false;
+                default -> isConstant(unary.getExpression(), field, cu);
+            };
+            case BinaryExpr binary -> isConstant(binary.getLeft(), field, cu) && isConstant(binary.getRight(), field, cu);
+            case ConditionalExpr cond -> isConstant(cond.getCondition(), field, cu)
+                    && isConstant(cond.getThenExpr(), field, cu) && isConstant(cond.getElseExpr(), field, cu);
+            case NameExpr name -> field.findAncestor(TypeDeclaration.class)
+                    .map(type -> isStaticFinal((TypeDeclaration<?>) type, name.getNameAsString())).orElse(false);
+            case FieldAccessExpr access -> isStaticFinal(cu, access);
+            default -> false;
+        };
+    }
+
+    private static boolean isStaticFinal(TypeDeclaration<?> type, String name) {
+        if (type instanceof EnumDeclaration enumDeclaration
+                && enumDeclaration.getEntries().stream().anyMatch(e -> e.getNameAsString().equals(name))) {
+            return true;
+        }
+        return type.getFieldByName(name).map(f -> f.isStatic() && f.isFinal()).orElse(false);
+    }
+
+    private static boolean isStaticFinal(CompilationUnit cu, FieldAccessExpr access) {
+        String fqn = AbstractCompiler.findFullyQualifiedName(cu, access.getScope().toString());
+        if (fqn == null) {
+            return false;
+        }
+        CompilationUnit other = AntikytheraRunTime.getCompilationUnit(fqn);
+        if (other != null) {
+            TypeDeclaration<?> type = AbstractCompiler.getMatchingType(other, fqn.substring(fqn.lastIndexOf('.') + 1));
+            return type != null && isStaticFinal(type, access.getNameAsString());
+        }
+        try {
+            int modifiers = AbstractCompiler.loadClass(fqn).getField(access.getNameAsString()).getModifiers();
+            return Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value == null || value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Double || value instanceof Float
+                || value instanceof Short || value instanceof Byte || value instanceof BigDecimal
+                || value instanceof BigInteger || value instanceof Enum<?> || value instanceof Class<?>;
+    }
+
+    /**
+     * Forget all the snapshots.
+     */
+    static void clear() {
+        snapshots.clear();
+    }
+
+    private record Key(Class<?> evaluatorClass, String className) {
+    }
+}
@@ -34,6 +34,14 @@ public class InnerClassEvaluator extends Evaluator {
         return v;
     }
 
+    /**
+     * The fields of an inner class may be initialized from the enclosing instance.
+     */
+    @Override
+    protected boolean isFieldStateShareable() {
+        return false;
+    }
+
     public void setEnclosure(Evaluator eval) {
         this.enclosure = eval;
     }
@@ -128,7 +128,7 @@ public class Reflect {
                 try {
                     String className = arguments.get(0).calculateResolvedType().describe();
                     className = primitiveToWrapper(className);
-                    argumentTypes[i] = Class.forName(className);
+                    argumentTypes[i] = AbstractCompiler.loadClass(className);
                 } catch (UnsolvedSymbolException|ReflectiveOperationException us) {
                     argumentTypes[i] = Object.class;
                 }
@@ -312,32 +312,34 @@ public class Reflect {
      * @param clazz the class on which we need to match the method name
      * @return a Method instance or null.
      */
-    @SuppressWarnings("java:S1872")
     public static Method findMethod(Class<?> clazz, ReflectionArguments reflectionArguments) {
-        String methodName = reflectionArguments.getMethodName();
-        Class<?>[] argumentTypes = reflectionArguments.getArgumentTypes();
-
-        for (Method m : getMethodsByName(clazz, methodName)) {
-            Class<?>[] parameterTypes = m.getParameterTypes();
-            if (parameterTypes.length == 1 && parameterTypes[0].equals(Object[].class)) {
+        for (Method m : getMethodsByName(clazz, reflectionArguments.getMethodName())) {
+            if (matchMethod(m, reflectionArguments)) {
                 return m;
             }
-            if (argumentTypes == null || parameterTypes.length != argumentTypes.length) {
+        }
+        return null;
+    }
+
+    @SuppressWarnings("java:S1872")
+    private static boolean matchMethod(Method m, ReflectionArguments reflectionArguments) {
+        Class<?>[] argumentTypes = reflectionArguments.getArgumentTypes();
+        Class<?>[] parameterTypes = m.getParameterTypes();
+        if (parameterTypes.length == 1 && parameterTypes[0].equals(Object[].class)) {
+            return true;
+        }
+        if (argumentTypes == null || parameterTypes.length != argumentTypes.length) {
+            return false;
+        }
+        boolean found = true;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            if (matchArgumentVsParameter(argumentTypes, parameterTypes, reflectionArguments.getArguments(), i) ||
+                    parameterTypes[i].getName().equals("java.lang.Object")) {
                 continue;
             }
-            boolean found = true;
-            for (int i = 0; i < argumentTypes.length; i++) {
-                if (matchArgumentVsParameter(argumentTypes, parameterTypes, reflectionArguments.getArguments(), i) ||
-                        parameterTypes[i].getName().equals("java.lang.Object")) {
-                    continue;
-                }
-                found = false;
-            }
-            if (found) {
-                return m;
-            }
+            found = false;
         }
-        return null;
+        return found;
     }
 
     /**
@@ -346,16 +348,10 @@ public class Reflect {
      * the reduction in method complexity.
      * @param clazz the haystack to search
      * @param name the needle to find.
-     * @return a list of methods that match the name
+     * @return an unmodifiable list of methods that match the name
      */
     public static List<Method> getMethodsByName(Class<?> clazz, String name) {
-        List<Method> methods = new ArrayList<>();
-        for (Method m : clazz.getMethods()) {
-            if (m.getName().equals(name)) {
-                methods.add(m);
-            }
-        }
-        return methods;
+        return ReflectionCache.getMethods(clazz, name);
     }
 
     /**
@@ -364,26 +360,44 @@ public class Reflect {
      * This method has side effects. The argumentTypes may end up being converted from a boxed to primitive
      * or vice verce
      *
+     * The constructor chosen for a class and a list of argument types is remembered. When the
+     * same combination is seen again only that constructor is matched against the arguments so
+     * that the conversions are still applied.
+     *
      * @param clazz      the Class for which we need to find a constructor
      * @param argumentTypes the types of the parameters we are looking for.
      * @return a Constructor instance or null.
      */
     public static Constructor<?> findConstructor(Class<?> clazz, Class<?>[] argumentTypes, Object[] arguments) {
+        ReflectionCache.MethodKey key = ReflectionCache.MethodKey.of(clazz, ReflectionCache.CONSTRUCTOR,
+                argumentTypes, arguments);
+        Optional<Constructor<?>> cached = ReflectionCache.getConstructor(key);
+        if (cached != null) {
+            cached.ifPresent(c -> matchConstructor(c, argumentTypes, arguments));
+            return cached.orElse(null);
+        }
+        Constructor<?> constructor = null;
         for (Constructor<?> c : clazz.getDeclaredConstructors()) {
-            Class<?>[] parameterTypes = c.getParameterTypes();
-            if (parameterTypes.length != argumentTypes.length) {
-                continue;
-            }
-            boolean found = true;
-            for (int i = 0; i < argumentTypes.length; i++) {
-                if (matchArgumentVsParameter(argumentTypes, parameterTypes, arguments, i)) continue;
-                found = false;
-            }
-            if (found) {
-                return c;
+            if (matchConstructor(c, argumentTypes, arguments)) {
+                constructor = c;
+                break;
             }
         }
-        return null;
+        ReflectionCache.putConstructor(key, constructor);
+        return constructor;
+    }
+
+    private static boolean matchConstructor(Constructor<?> c, Class<?>[] argumentTypes, Object[] arguments) {
+        Class<?>[] parameterTypes = c.getParameterTypes();
+        if (parameterTypes.length != argumentTypes.length) {
+            return false;
+        }
+        boolean found = true;
+        for (int i = 0; i < argumentTypes.length; i++) {
+            if (matchArgumentVsParameter(argumentTypes, parameterTypes, arguments, i)) continue;
+            found = false;
+        }
+        return found;
     }
 
     /**
@@ -451,7 +465,30 @@ public class Reflect {
                 reflectionArguments.getArguments();
     }
 
+    /**
+     * <p>Find a method in the class, its interfaces or its super classes that matches the arguments.</p>
+     *
+     * The outcome is remembered for the class, the method name and the argument types. When the
+     * same call is seen again only the chosen method is matched against the arguments, which
+     * still applies the side effects described in {@link #findMethod(Class, ReflectionArguments)}.
+     *
+     * @param clazz the class on which the method is called
+     * @param reflectionArguments the name of the method and the arguments
+     * @return the matching method or null
+     */
     public static Method findAccessibleMethod(Class<?> clazz, ReflectionArguments reflectionArguments) {
+        ReflectionCache.MethodKey key = ReflectionCache.MethodKey.of(clazz, reflectionArguments);
+        Optional<Method> cached = ReflectionCache.getMethod(key);
+        if (cached != null) {
+            cached.ifPresent(m -> matchMethod(m, reflectionArguments));
+            return cached.orElse(null);
+        }
+        Method method = searchAccessibleMethod(clazz, reflectionArguments);
+        ReflectionCache.putMethod(key, method);
+        return method;
+    }
+
+    private static Method searchAccessibleMethod(Class<?> clazz, ReflectionArguments reflectionArguments) {
         Method method = Reflect.findMethod(clazz, reflectionArguments);
         if (method != null) return method;
 
@@ -463,7 +500,7 @@ public class Reflect {
 
         // Search superclass if no interface method found
         Class<?> superclass = clazz.getSuperclass();
-        return superclass != null ? findAccessibleMethod(superclass, reflectionArguments) : null;
+        return superclass != null ? searchAccessibleMethod(superclass, reflectionArguments) : null;
     }
 
     public static Method findPublicMethod(Class<?> clazz, String methodName, Class<?>[] paramTypes) {
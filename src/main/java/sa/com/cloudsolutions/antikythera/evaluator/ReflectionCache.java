@@ -0,0 +1,152 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Remembers the outcome of reflective lookups made while evaluating code.</p>
+ *
+ * Calls into the JDK and into libraries are resolved with reflection. The same few methods of
+ * String, the collections and the streams are looked up millions of times, and every call to
+ * Class.getMethods() copies the whole array. The methods of each class are grouped by name once,
+ * the method chosen for a given receiver, name and argument types is kept, and so is the method
+ * that actually has to be invoked when the chosen one turns out to be inaccessible. Constructors
+ * are remembered in the same way for each class and list of argument types.
+ *
+ * Classes are used as keys by identity so entries for classes from an older class loader are
+ * simply never found again. The caches are bounded; when one fills up it is emptied.
+ */
+public class ReflectionCache {
+    private static final int MAX_ENTRIES = 50_000;
+
+    private static final Map<Class<?>, Map<String, List<Method>>> methodsByName = new ConcurrentHashMap<>();
+    private static final Map<MethodKey, Optional<Method>> methods = new ConcurrentHashMap<>();
+    private static final Map<Invocation, Method> invocables = new ConcurrentHashMap<>();
+    private static final Map<MethodKey, Optional<Constructor<?>>> constructors = new ConcurrentHashMap<>();
+
+    /**
+     * Used as the method name in the keys for constructors
+     */
+    static final String CONSTRUCTOR = "<init>";
+
+    private ReflectionCache() {}
+
+    /**
+     * The public methods of a class with the given name.
+     * @param clazz the class to search
+     * @param name the name of the method
+     * @return an unmodifiable list which will be empty if there are no such methods
+     */
+    static List<Method> getMethods(Class<?> clazz, String name) {
+        Map<String, List<Method>> byName = methodsByName.get(clazz);
+        if (byName == null) {
+            Map<String, List<Method>> grouped = new HashMap<>();
+            for (Method m : clazz.getMethods()) {
+                grouped.computeIfAbsent(m.getName(), k -> new ArrayList<>()).add(m);
+            }
+            byName = new HashMap<>();
+            for (Map.Entry<String, List<Method>> entry : grouped.entrySet()) {
+                byName.put(entry.getKey(), List.copyOf(entry.getValue()));
+            }
+            bound(methodsByName);
+            methodsByName.putIfAbsent(clazz, byName);
+        }
+        return byName.getOrDefault(name, List.of());
+    }
+
+    /**
+     * The method previously chosen for a call.
+     * @return null if the call has not been seen before, an empty optional if no method matched.
+     */
+    @SuppressWarnings("java:S2789")
+    static Optional<Method> getMethod(MethodKey key) {
+        return methods.get(key);
+    }
+
+    static void putMethod(MethodKey key, Method method) {
+        bound(methods);
+        methods.putIfAbsent(key, Optional.ofNullable(method));
+    }
+
+    /**
+     * The constructor previously chosen for a list of argument types.
+     * @return null if the combination has not been seen before, an empty optional if no
+     *      constructor matched.
+     */
+    @SuppressWarnings("java:S2789")
+    static Optional<Constructor<?>> getConstructor(MethodKey key) {
+        return constructors.get(key);
+    }
+
+    static void putConstructor(MethodKey key, Constructor<?> constructor) {
+        bound(constructors);
+        constructors.putIfAbsent(key, Optional.ofNullable(constructor));
+    }
+
+    /**
+     * The method that should be invoked in place of the one that was found by matching arguments.
+     * @param receiver the class of the object on which the method is called
+     * @param method the method found by matching the arguments
+     * @return a public method from an interface or a super class if the method itself could not be
+     *      invoked before, otherwise the method itself.
+     */
+    static Method getInvocable(Class<?> receiver, Method method) {
+        Method invocable = invocables.get(new Invocation(receiver, method));
+        return invocable == null ? method : invocable;
+    }
+
+    static void putInvocable(Class<?> receiver, Method method, Method invocable) {
+        bound(invocables);
+        invocables.put(new Invocation(receiver, method), invocable);
+    }
+
+    private static void bound(Map<?, ?> cache) {
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Forget everything that has been looked up. Should be called whenever the class loader changes.
+     */
+    public static void reset() {
+        methodsByName.clear();
+        methods.clear();
+        invocables.clear();
+        constructors.clear();
+    }
+
+    /**
+     * Identifies a reflective call by the receiver, the method name and the argument types.
+     * Arguments that are null match any parameter, so they are recorded as null types.
+     */
+    record MethodKey(Class<?> clazz, String name, List<Class<?>> types) {
+        static MethodKey of(Class<?> clazz, ReflectionArguments reflectionArguments) {
+            return of(clazz, reflectionArguments.getMethodName(),
+                    reflectionArguments.getArgumentTypes(), reflectionArguments.getArguments());
+        }
+
+        static MethodKey of(Class<?> clazz, String name, Class<?>[] argumentTypes, Object[] arguments) {
+            if (argumentTypes == null) {
+                return new MethodKey(clazz, name, null);
+            }
+            Class<?>[] types = Arrays.copyOf(argumentTypes, argumentTypes.length);
+            for (int i = 0; i < types.length; i++) {
+                if (arguments == null || i >= arguments.length || arguments[i] == null) {
+                    types[i] = null;
+                }
+            }
+            return new MethodKey(clazz, name, Arrays.asList(types));
+        }
+    }
+
+    private record Invocation(Class<?> receiver, Method method) {
+    }
+}
@@ -0,0 +1,125 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+
+import java.util.List;
+
+/**
+ * <p>The scopes of a method call, taken apart once and kept with the method call expression.</p>
+ *
+ * The same method calls are evaluated over and over again, in loops and each time the enclosing
+ * method is executed. Walking the scopes and rendering them as strings to recognize loggers and
+ * types is only done the first time. The links are held in the order in which they have to be
+ * evaluated, the innermost scope first.
+ */
+final class ScopeChain {
+    /**
+     * What sort of expression each link in the chain is.
+     */
+    enum Kind {
+        /**
+         * A name, which may be a local, a field or a class
+         */
+        NAME,
+        FIELD,
+        METHOD,
+        LITERAL,
+        THIS,
+        TYPE,
+        /**
+         * Anything that the evaluator does not deal with as a scope
+         */
+        OTHER
+    }
+
+    private static final DataKey<ScopeChain> SCOPE_CHAIN = new DataKey<>() {};
+
+    /**
+     * The immediate scope that this chain was built for.
+     */
+    private final Expression scope;
+    private final Expression[] links;
+    private final Kind[] kinds;
+    /**
+     * The field names for field access expressions and the rendered type for type expressions.
+     */
+    private final String[] names;
+    private final boolean logger;
+
+    private ScopeChain(Expression scope, List<Expression> chain) {
+        this.scope = scope;
+        int size = chain.size();
+        links = new Expression[size];
+        kinds = new Kind[size];
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            Expression expr = chain.get(size - 1 - i);
+            links[i] = expr;
+            if (expr.isNameExpr()) {
+                kinds[i] = Kind.NAME;
+            } else if (expr.isFieldAccessExpr()) {
+                kinds[i] = Kind.FIELD;
+                names[i] = expr.asFieldAccessExpr().getNameAsString();
+            } else if (expr.isMethodCallExpr()) {
+                kinds[i] = Kind.METHOD;
+            } else if (expr.isLiteralExpr()) {
+                kinds[i] = Kind.LITERAL;
+            } else if (expr.isThisExpr()) {
+                kinds[i] = Kind.THIS;
+            } else if (expr.isTypeExpr()) {
+                kinds[i] = Kind.TYPE;
+                names[i] = expr.toString();
+            } else {
+                kinds[i] = Kind.OTHER;
+            }
+        }
+        logger = scope != null && scope.toString().equals("logger");
+    }
+
+    /**
+     * The scope chain for a method call, built on first use.
+     * @param methodCall the method call expression
+     * @return the chain, which is rebuilt if the scope of the method call has been replaced.
+     */
+    static ScopeChain of(MethodCallExpr methodCall) {
+        Expression scope = methodCall.getScope().orElse(null);
+        if (methodCall.containsData(SCOPE_CHAIN)) {
+            ScopeChain chain = methodCall.getData(SCOPE_CHAIN);
+            if (chain.scope == scope) {
+                return chain;
+            }
+        }
+        ScopeChain chain = new ScopeChain(scope, Evaluator.findScopeChain(methodCall));
+        methodCall.setData(SCOPE_CHAIN, chain);
+        return chain;
+    }
+
+    /**
+     * @return true if the method is being called on a logger.
+     */
+    boolean isLogger() {
+        return logger;
+    }
+
+    boolean isEmpty() {
+        return links.length == 0;
+    }
+
+    int size() {
+        return links.length;
+    }
+
+    Expression get(int i) {
+        return links[i];
+    }
+
+    Kind getKind(int i) {
+        return kinds[i];
+    }
+
+    String getName(int i) {
+        return names[i];
+    }
+}
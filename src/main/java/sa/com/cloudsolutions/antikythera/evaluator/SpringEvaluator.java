@@ -1,5 +1,6 @@
 package sa.com.cloudsolutions.antikythera.evaluator;
 
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
@@ -11,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import sa.com.cloudsolutions.antikythera.exception.AUTException;
+import sa.com.cloudsolutions.antikythera.exception.ExecutionBudgetException;
 import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
 import sa.com.cloudsolutions.antikythera.generator.QueryMethodArgument;
 import sa.com.cloudsolutions.antikythera.generator.TruthTable;
@@ -76,7 +78,12 @@ public class SpringEvaluator extends Evaluator {
      */
     private MethodDeclaration currentMethod;
 
-    private static final HashMap<Integer, LineOfCode> branching = new HashMap<>();
+    /**
+     * The paths taken through the if statements of the method being visited
+     */
+    private static final BranchCoverage branching = new BranchCoverage();
+
+    private static final DataKey<TruthTable> TRUTH_TABLE = new DataKey<>() {};
 
     private boolean onTest;
 
@@ -96,6 +103,17 @@ public class SpringEvaluator extends Evaluator {
      * so that we can exercise all the paths in the code. This is done by setting the values
      * of variables so that different branches in conditional statements are taken.
      *
+     * Each outcome of each if statement that has not been taken yet is a target. When an if
+     * statement is reached, the truth table of its condition is solved for the outcome that it
+     * did not take. If there is no solution that outcome is unreachable, otherwise the setters
+     * that bring the solution about are recorded for it. Each run is steered towards one target
+     * by installing only the preconditions of that target.
+     *
+     * A run may reach new targets without being steered, because the fields of the evaluator
+     * and static state carry over from one run to the next. So the method is run as many times
+     * as before, twice for each if statement, and that only stops early when every remaining
+     * target has been shown to be unreachable.
+     *
      * @param md The MethodDeclaration being worked on
      * @throws AntikytheraException if evaluation fails
      * @throws ReflectiveOperationException if a reflection operation fails
@@ -108,24 +126,39 @@ public class SpringEvaluator extends Evaluator {
             }
         });
 
-        branching.clear();
+        branching.reset(md);
         preConditions.clear();
 
         md.accept(new VoidVisitorAdapter<Void>(){
             @Override
             public void visit(IfStmt stmt, Void arg) {
-                LineOfCode l = new LineOfCode(stmt);
-                branching.putIfAbsent(stmt.hashCode(), l);
+                branching.addBranch(stmt);
             }
         }, null);
 
+        String name = getClassName() + "." + md.getSignature().asString();
+        int targets = branching.size() * 2;
         try {
-            for (int i = 0; i < branching.size() * 2; i++) {
+            for (int runs = 0; runs < targets && branching.hasReachableTargets(); runs++) {
+                Set<Expression> target = branching.nextTarget();
+                preConditions.put(md, target == null ? new HashSet<>() : new HashSet<>(target));
                 mockMethodArguments(md);
-                executeMethod(md);
+                ExecutionMonitor.begin(name);
+                try {
+                    executeMethod(md);
+                } finally {
+                    ExecutionMonitor.end();
+                }
             }
         } catch (AUTException aex) {
             logger.warn("This has probably been handled {}", aex.getMessage());
+        } catch (ExecutionBudgetException ebe) {
+            logger.warn("Abandoned the evaluation of {}: {}", name, ebe.getMessage());
+            loops.clear();
+            catching.clear();
+        }
+        if (targets > 0) {
+            ExecutionMonitor.coverage(name, targets - branching.countUncovered(), targets);
         }
     }
 
@@ -138,6 +171,7 @@ public class SpringEvaluator extends Evaluator {
             List<Statement> statements = md.getBody().orElseThrow().getStatements();
             if (setupParameters(md)) {
                 applyPreconditions(md);
+                compile(md);
                 executeBlock(statements);
             } else {
                 return testForBadRequest();
@@ -483,90 +517,100 @@ public class SpringEvaluator extends Evaluator {
 
     @Override
     Variable ifThenElseBlock(IfStmt ifst) throws Exception {
-        LineOfCode l = branching.get(ifst.hashCode());
-        if (l == null) {
+        int pathTaken = branching.getPathTaken(ifst);
+        if (pathTaken == -1) {
             return super.ifThenElseBlock(ifst);
         }
-        return switch (l.getPathTaken()) {
-            case LineOfCode.UNTAVELLED -> {
-                Variable v = super.ifThenElseBlock(ifst);
-                if ((boolean) v.getValue()) {
-                    l.setPathTaken(LineOfCode.TRUE_PATH);
-                    setupIfCondition(ifst, false);
-                }
-                else {
-                    l.setPathTaken(LineOfCode.FALSE_PATH);
-                    setupIfCondition(ifst, true);
-                }
-                yield v;
-            }
-            case LineOfCode.FALSE_PATH -> {
-                setupIfCondition(ifst, true);
-                l.setPathTaken(LineOfCode.BOTH_PATHS);
-                yield super.ifThenElseBlock(ifst);
-            }
-            case LineOfCode.TRUE_PATH -> {
-                setupIfCondition(ifst, false);
-                l.setPathTaken(LineOfCode.BOTH_PATHS);
-                yield super.ifThenElseBlock(ifst);
-            }
-            default -> null;
-        };
+        if (pathTaken == LineOfCode.BOTH_PATHS) {
+            return null;
+        }
+        Variable v = super.ifThenElseBlock(ifst);
+        boolean state = (boolean) v.getValue();
+        pathTaken |= state ? LineOfCode.TRUE_PATH : LineOfCode.FALSE_PATH;
+        branching.setPathTaken(ifst, pathTaken);
+        if (pathTaken != LineOfCode.BOTH_PATHS) {
+            setupIfCondition(ifst, !state);
+        }
+        return v;
     }
 
     /**
-     * Set up an if condition so that it will evaluate to true or false in future executions.
+     * Work out how to make an if condition evaluate to true or false in a later run, and record
+     * it as the preconditions of that target. If no values make the condition have that state,
+     * the target is recorded as unreachable instead.
      * @param ifst the if statement to mess with
      * @param state the desired state.
      */
     private void setupIfCondition(IfStmt ifst, boolean state)  {
-        TruthTable tt = new TruthTable(ifst.getCondition());
-        List<Map<Expression, Object>> values = tt.findValuesForCondition(state);
-
-        if (!values.isEmpty()) {
-            Map<Expression, Object> value = values.getFirst();
-            for (var entry : value.entrySet()) {
-                if(entry.getKey().isMethodCallExpr()) {
-
-                    LinkedList<Expression> chain = Evaluator.findScopeChain(entry.getKey());
-                    if (!chain.isEmpty()) {
-                        Expression expr = chain.getFirst();
-                        Variable v = getValue(ifst, expr.toString());
-                        if (v == null && expr.isNameExpr()) {
+        Optional<Map<Expression, Object>> values = truthTable(ifst).solve(state);
+        if (values.isEmpty()) {
+            branching.setUnreachable(ifst, state);
+            return;
+        }
+
+        Set<Expression> setters = new HashSet<>();
+        for (var entry : values.get().entrySet()) {
+            if(entry.getKey().isMethodCallExpr()) {
+
+                LinkedList<Expression> chain = Evaluator.findScopeChain(entry.getKey());
+                if (!chain.isEmpty()) {
+                    Expression expr = chain.getFirst();
+                    Variable v = getValue(ifst, expr.toString());
+                    if (v == null && expr.isNameExpr()) {
+                        /*
+                         * This is likely to be a static method.
+                         */
+                        String fullname = AbstractCompiler.findFullyQualifiedName(cu, expr.asNameExpr().getNameAsString());
+                        if(fullname != null) {
                             /*
-                             * This is likely to be a static method.
+                             * The only other possibility is static access on a class
                              */
-                            String fullname = AbstractCompiler.findFullyQualifiedName(cu, expr.asNameExpr().getNameAsString());
-                            if(fullname != null) {
+                            try {
+                                Class.forName(fullname);
+
+                            } catch (ReflectiveOperationException e) {
                                 /*
-                                 * The only other possibility is static access on a class
+                                 * Can probably be ignroed
                                  */
-                                try {
-                                    Class.forName(fullname);
-
-                                } catch (ReflectiveOperationException e) {
-                                    /*
-                                     * Can probably be ignroed
-                                     */
-                                    logger.info("Could not create class for {}", fullname);
-                                }
+                                logger.info("Could not create class for {}", fullname);
                             }
                         }
+                    }
 
-                        if (v != null && v.getValue() instanceof Evaluator) {
-                            setupConditionalVariable(ifst, state, entry, expr);
-                        }
+                    if (v != null && v.getValue() instanceof Evaluator) {
+                        setters.add(setupConditionalVariable(entry, expr));
                     }
                 }
             }
         }
+        branching.setPreconditions(ifst, state, setters);
+    }
+
+    /**
+     * The truth table for the condition of an if statement.
+     *
+     * The same branches are flipped over and over, on every pass through the method and by each
+     * of the argument generators. The table is kept with the if statement, so the variables of
+     * the condition are collected once and each outcome is solved once. It is made again if the
+     * condition has been replaced.
+     */
+    private static TruthTable truthTable(IfStmt ifst) {
+        if (ifst.containsData(TRUTH_TABLE)) {
+            TruthTable tt = ifst.getData(TRUTH_TABLE);
+            if (tt.getCondition() == ifst.getCondition()) {
+                return tt;
+            }
+        }
+        TruthTable tt = new TruthTable(ifst.getCondition());
+        ifst.setData(TRUTH_TABLE, tt);
+        return tt;
     }
 
-    private void setupConditionalVariable(IfStmt ifst, boolean state, Map.Entry<Expression, Object> entry, Expression scope) {
+    private static MethodCallExpr setupConditionalVariable(Map.Entry<Expression, Object> entry, Expression scope) {
         MethodCallExpr setter = new MethodCallExpr();
         String name = entry.getKey().asMethodCallExpr().getNameAsString().substring(3);
         setter.setName("set" + name);
-        setter.setScope(scope);
+        setter.setScope(scope.clone());
 
         if (entry.getValue() == null) {
             setter.addArgument("null");
@@ -574,16 +618,7 @@ public class SpringEvaluator extends Evaluator {
         else {
             setter.addArgument(entry.getValue().toString());
         }
-        LineOfCode l = branching.get(ifst.hashCode());
-        l.addPrecondition(setter, state);
-        ifst.findAncestor(MethodDeclaration.class).ifPresent(md -> {
-            Set<Expression> expressions = preConditions.get(md);
-            if (expressions == null) {
-                expressions = new HashSet<>();
-                preConditions.put(md, expressions);
-            }
-            expressions.add(setter);
-        });
+        return setter;
     }
 
     /**
@@ -610,11 +645,11 @@ public class SpringEvaluator extends Evaluator {
      * @return
      */
     public boolean allVisited(IfStmt stmt) {
-        LineOfCode l = branching.get(stmt.hashCode());
-        if (l == null) {
+        int pathTaken = branching.getPathTaken(stmt);
+        if (pathTaken == -1) {
             return false;
         }
-        if (l.getPathTaken() == LineOfCode.TRUE_PATH) {
+        if (pathTaken == LineOfCode.TRUE_PATH) {
             return true;
         }
         Statement then = stmt.getThenStmt();
@@ -648,11 +683,7 @@ public class SpringEvaluator extends Evaluator {
      * @return true if this line has been visited.
      */
     private boolean isLineVisited(Statement stmt) {
-        LineOfCode l = branching.get(stmt.hashCode());
-        if (l == null) {
-            return false;
-        }
-        return l.getPathTaken() == LineOfCode.TRUE_PATH;
+        return branching.getPathTaken(stmt) == LineOfCode.TRUE_PATH;
     }
 
     public void resetColors() {
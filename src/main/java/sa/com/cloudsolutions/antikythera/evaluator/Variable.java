@@ -8,6 +8,12 @@ public class Variable {
      * Represents a java parser type
      */
     private Type type;
+    /**
+     * The class from which the java parser type will be worked out when it is first needed.
+     * Most variables are intermediate results whose type is never asked for, so creating it up
+     * front is wasted effort.
+     */
+    private Class<?> typeSource;
     /**
      * Represents the type as it was identified by reflection.
      * This is needed because sometimes the value maybe null because it's supposed to hold null, but when
@@ -61,7 +67,27 @@ public class Variable {
         }
     }
 
+    /**
+     * A new variable with the same value and attributes, for use where the original must not be
+     * affected by assignments.
+     */
+    Variable copy() {
+        Variable v = new Variable((Object) null);
+        v.type = type;
+        v.typeSource = typeSource;
+        v.clazz = clazz;
+        v.value = value;
+        v.initializer = initializer;
+        v.primitive = primitive;
+        v.stat = stat;
+        return v;
+    }
+
     public Type getType() {
+        if (type == null && typeSource != null) {
+            type = Reflect.getComponentType(typeSource);
+            typeSource = null;
+        }
         return type;
     }
 
@@ -78,6 +104,7 @@ public class Variable {
 
     public void setType(Type type) {
         this.type = type;
+        this.typeSource = null;
         if (this.clazz == null) {
             try {
                 this.clazz = Reflect.getComponentClass(type.asString());
@@ -113,8 +140,8 @@ public class Variable {
 
     public void setClazz(Class<?> clazz) {
         this.clazz = clazz;
-        if (this.type == null) {
-            this.type = Reflect.getComponentType(clazz);
+        if (getType() == null) {
+            typeSource = clazz;
         }
     }
 
@@ -1,5 +1,6 @@
 package sa.com.cloudsolutions.antikythera.evaluator.functional;
 
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.Parameter;
@@ -21,6 +22,8 @@ import java.util.Map;
 import java.util.Optional;
 
 public abstract class FPEvaluator<T> extends InnerClassEvaluator {
+    private static final DataKey<Shape> SHAPE = new DataKey<>() {};
+
     protected MethodDeclaration methodDeclaration;
     Expression expr;
 
@@ -28,7 +31,42 @@ public abstract class FPEvaluator<T> extends InnerClassEvaluator {
         super(className);
     }
 
+    /**
+     * Create an evaluator for a lambda expression.
+     *
+     * The method declaration that stands in for the lambda is put together the first time that
+     * the lambda is encountered and kept with it, so that lambdas inside loops and stream
+     * pipelines are not cloned again every time. Only the evaluator, which holds the locals and
+     * the enclosure, is created afresh.
+     *
+     * @param lambda the lambda expression from the source code
+     * @param enclosure the evaluator in which the lambda is being evaluated
+     * @return a variable holding the evaluator
+     */
     public static Variable create(LambdaExpr lambda, Evaluator enclosure) {
+        Shape shape = getShape(lambda);
+        FPEvaluator<?> fp = createEvaluator(shape.method(), shape.returning());
+        fp.enclosure = enclosure;
+        fp.expr = lambda;
+        Variable v = new Variable(fp);
+        v.setType(fp.getType());
+        return v;
+    }
+
+    private static Shape getShape(LambdaExpr lambda) {
+        if (lambda.containsData(SHAPE)) {
+            Shape shape = lambda.getData(SHAPE);
+            if (shape.body() == lambda.getBody()) {
+                return shape;
+            }
+        }
+        MethodDeclaration md = synthesize(lambda);
+        Shape shape = new Shape(lambda.getBody(), md, md.getBody().orElseThrow().findFirst(ReturnStmt.class).isPresent());
+        lambda.setData(SHAPE, shape);
+        return shape;
+    }
+
+    private static MethodDeclaration synthesize(LambdaExpr lambda) {
         LambdaExpr lambdaExpr = lambda.clone();
         lambdaExpr.setParentNode(lambda.getParentNode().orElseThrow());
 
@@ -61,17 +99,11 @@ public abstract class FPEvaluator<T> extends InnerClassEvaluator {
                 param.setType("Object");
             }
         }
-
-        FPEvaluator<?> fp = createEvaluator(md);
-        fp.enclosure = enclosure;
-        fp.expr = lambda;
-        Variable v = new Variable(fp);
-        v.setType(fp.getType());
-        return v;
+        return md;
     }
 
-    private static FPEvaluator<?> createEvaluator(MethodDeclaration md) {
-        if (md.getBody().orElseThrow().findFirst(ReturnStmt.class).isPresent()) {
+    private static FPEvaluator<?> createEvaluator(MethodDeclaration md, boolean returning) {
+        if (returning) {
             FPEvaluator<?> eval = switch (md.getParameters().size()) {
                 case 0 -> new SupplierEvaluator<>("java.util.function.Supplier");
                 case 1 -> new FunctionEvaluator<>("java.util.function.Function");
@@ -133,6 +165,10 @@ public abstract class FPEvaluator<T> extends InnerClassEvaluator {
         this.methodDeclaration = methodDeclaration;
     }
 
+    public MethodDeclaration getMethod() {
+        return methodDeclaration;
+    }
+
     @Override
     public Variable getValue(Node n, String name) {
         Variable v = super.getValue(n, name);
@@ -155,4 +191,14 @@ public abstract class FPEvaluator<T> extends InnerClassEvaluator {
     }
 
     public abstract Type getType();
+
+    /**
+     * The method declaration synthesized for a lambda.
+     * @param body the body of the lambda it was made from, if that is replaced the method has to be
+     *             made again.
+     * @param method the method declaration
+     * @param returning true if the method returns a value
+     */
+    private record Shape(Node body, MethodDeclaration method, boolean returning) {
+    }
 }
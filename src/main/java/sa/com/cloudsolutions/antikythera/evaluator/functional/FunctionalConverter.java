@@ -1,6 +1,7 @@
 package sa.com.cloudsolutions.antikythera.evaluator.functional;
 
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -22,14 +23,45 @@ import sa.com.cloudsolutions.antikythera.evaluator.Variable;
 import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public class FunctionalConverter {
 
+    private static final DataKey<Map<Object, LambdaExpr>> LAMBDAS = new DataKey<>() {};
+    private static final Object NO_SCOPE = new Object();
+    private static final Object EVALUATOR_SCOPE = new Object();
+
     /**
      * Converts a MethodReferenceExpr to a LambdaExpr
+     *
+     * The lambda depends only on the method reference and the kind of scope that it is used with,
+     * so it is kept with the method reference and reused whenever the same kind of scope comes
+     * up again.
      */
     public static LambdaExpr convertToLambda(MethodReferenceExpr methodRef, Variable outerScope) {
+        Object key;
+        if (outerScope == null) {
+            key = NO_SCOPE;
+        } else if (outerScope.getValue() instanceof Evaluator) {
+            key = EVALUATOR_SCOPE;
+        } else {
+            key = outerScope.getClazz();
+        }
+        if (!methodRef.containsData(LAMBDAS)) {
+            methodRef.setData(LAMBDAS, new HashMap<>());
+        }
+        Map<Object, LambdaExpr> lambdas = methodRef.getData(LAMBDAS);
+        LambdaExpr lambda = lambdas.get(key);
+        if (lambda == null) {
+            lambda = createLambda(methodRef, outerScope);
+            lambdas.put(key, lambda);
+        }
+        return lambda;
+    }
+
+    private static LambdaExpr createLambda(MethodReferenceExpr methodRef, Variable outerScope) {
         NodeList<Parameter> parameters = new NodeList<>();
         parameters.add(new Parameter(new ClassOrInterfaceType().setName("Object"), "arg"));
 
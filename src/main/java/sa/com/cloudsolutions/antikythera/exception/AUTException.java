@@ -2,23 +2,29 @@ package sa.com.cloudsolutions.antikythera.exception;
 
 import sa.com.cloudsolutions.antikythera.evaluator.Variable;
 
+/**
+ * An exception thrown by the application under test that it does not catch itself.
+ *
+ * These unwind the evaluator back to the method being tested and are part of its normal
+ * operation, so they do not carry a stack trace unless debug logging is enabled.
+ */
 public class AUTException extends AntikytheraException{
     private transient Variable variable;
 
     public AUTException(String message) {
-        super(message);
+        super(message, null, true);
     }
 
     public AUTException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true);
     }
 
     public AUTException(Throwable cause) {
-        super(cause);
+        super(cause == null ? null : cause.toString(), cause, true);
     }
 
     public AUTException(String message, Variable v) {
-        super(message);
+        super(message, null, true);
         this.variable = v;
     }
 
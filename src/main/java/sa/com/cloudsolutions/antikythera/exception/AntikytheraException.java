@@ -1,6 +1,10 @@
 package sa.com.cloudsolutions.antikythera.exception;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class AntikytheraException  extends RuntimeException {
+    private static final Logger logger = LoggerFactory.getLogger(AntikytheraException.class);
 
     public AntikytheraException(String message) {
         super(message);
@@ -13,4 +17,19 @@ public class AntikytheraException  extends RuntimeException {
     public AntikytheraException(Throwable cause) {
         super(cause);
     }
+
+    /**
+     * For exceptions that the evaluator throws and catches again as part of its normal operation.
+     *
+     * The interpreter is deeply recursive, so filling in the stack trace is the most expensive
+     * part of raising an exception, and these are raised several times along every path that ends
+     * in an error. The stack trace is only recorded when debug logging is enabled.
+     *
+     * @param message the detail message
+     * @param cause the exception being wrapped, may be null
+     * @param stackless true to leave out the stack trace when debug logging is disabled
+     */
+    protected AntikytheraException(String message, Throwable cause, boolean stackless) {
+        super(message, cause, true, !stackless || logger.isDebugEnabled());
+    }
 }
@@ -1,21 +1,29 @@
 package sa.com.cloudsolutions.antikythera.exception;
 
+/**
+ * Raised when the evaluator cannot go on with the code that it is executing.
+ *
+ * The error code records null pointer exceptions and internal server errors in the application,
+ * which are turned into tests instead of being reported. Because of that these exceptions are
+ * thrown and caught all the time, and they do not carry a stack trace unless debug logging is
+ * enabled.
+ */
 public class EvaluatorException extends AntikytheraException {
     private int error;
     public static final int NPE = 1;
     public static final int INTERNAL_SERVER_ERROR = 2;
 
     public EvaluatorException(String message) {
-        super(message);
+        super(message, null, true);
     }
 
     public EvaluatorException(String message, int error) {
-        super(message);
+        super(message, null, true);
         this.error = error;
     }
 
     public EvaluatorException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true);
     }
 
     public int getError() {
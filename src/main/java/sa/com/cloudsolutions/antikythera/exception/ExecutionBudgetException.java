@@ -0,0 +1,11 @@
+package sa.com.cloudsolutions.antikythera.exception;
+
+/**
+ * Thrown when the evaluation of a method runs past the limits set in the execution_budget
+ * section of the configuration. The message records which limit was reached.
+ */
+public class ExecutionBudgetException extends EvaluatorException {
+    public ExecutionBudgetException(String message) {
+        super(message);
+    }
+}
@@ -9,9 +9,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import sa.com.cloudsolutions.antikythera.constants.Constants;
+import sa.com.cloudsolutions.antikythera.evaluator.ExecutionMonitor;
 import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
 import sa.com.cloudsolutions.antikythera.exception.EvaluatorException;
 import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+import sa.com.cloudsolutions.antikythera.parser.ClassLookup;
+import sa.com.cloudsolutions.antikythera.parser.HeapMetrics;
 import sa.com.cloudsolutions.antikythera.parser.RestControllerParser;
 import sa.com.cloudsolutions.antikythera.parser.ServicesParser;
 
@@ -45,6 +48,10 @@ public class Antikythera {
     private final Collection<String> controllers;
     private final Collection<String> services;
     private Model pomModel;
+    /**
+     * Tracks the changes since the previous run when incremental generation is enabled.
+     */
+    private ChangeManifest manifest;
 
     private Antikythera() {
         controllers = Settings.getPropertyList(Constants.CONTROLLERS, String.class);
@@ -97,6 +104,10 @@ public class Antikythera {
         logger.info("Generated {} tests", stats.getTests());
 
         antk.generateUnitTests();
+        antk.saveManifest();
+        logger.info("Class lookups: {} hits, {} misses", ClassLookup.getHits(), ClassLookup.getMisses());
+        ExecutionMonitor.log();
+        HeapMetrics.log("After generating tests");
     }
 
     /**
@@ -229,6 +240,9 @@ public class Antikythera {
         for (String controller : controllers) {
 
             String controllersCleaned = controller.replace(".java", "").split("#")[0];
+            if (isUnchanged(controllersCleaned)) {
+                continue;
+            }
             RestControllerParser processor = new RestControllerParser(controllersCleaned);
             processor.start();
         }
@@ -324,11 +338,41 @@ public class Antikythera {
 
         AbstractCompiler.preProcess();
 
+        if (Settings.getProperty("incremental", Boolean.class).orElse(false)) {
+            manifest = ChangeManifest.load();
+        }
+    }
+
+    /**
+     * In incremental mode the tests for a class are only generated again if the class or one of
+     * its dependencies has changed.
+     * @param className the fully qualified name of a controller or a service
+     * @return true if the existing tests can be left as they are.
+     */
+    private boolean isUnchanged(String className) {
+        if (manifest != null && !manifest.isAffected(className)) {
+            logger.info("Skipping {}, nothing has changed since the previous run", className);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Record the state of the source files so that the next run can be incremental.
+     * @throws IOException if the manifest could not be written
+     */
+    public void saveManifest() throws IOException {
+        if (manifest != null) {
+            manifest.save();
+        }
     }
 
     private void generateUnitTests() throws IOException {
         for (String service : services) {
             String[] parts = service.split("#");
+            if (isUnchanged(parts[0])) {
+                continue;
+            }
             ServicesParser processor = new ServicesParser(parts[0]);
             if (parts.length == 2) {
                 processor.start(parts[1]);
@@ -0,0 +1,194 @@
+package sa.com.cloudsolutions.antikythera.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithName;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.depsolver.ClassDependency;
+import sa.com.cloudsolutions.antikythera.depsolver.ClassProcessor;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+import sa.com.cloudsolutions.antikythera.parser.ParseCache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>Keeps track of the source files used to generate the tests so that subsequent runs only
+ * need to regenerate the tests for controllers and services that are affected by a change.</p>
+ *
+ * The manifest records the hash of every source file in the application under test. When the
+ * generator runs again the files are hashed once more and compared against the manifest to find
+ * out which classes have been added, changed or removed.
+ *
+ * A controller or a service is affected when a changed class can be reached by following the
+ * dependencies from it. The dependencies of a class are the types of the application under test
+ * that it refers to, the implementations of any interfaces among them (that is how autowiring
+ * will be resolved) and whatever the ClassProcessor has already discovered.
+ */
+public class ChangeManifest {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeManifest.class);
+    public static final String MANIFEST_FILE = "antikythera-manifest.json";
+
+    private final Path manifestFile;
+    /**
+     * Relative path of each source file mapped to the hash of its content in the previous run.
+     * Will be null if there wasn't a previous run.
+     */
+    private Map<String, String> previous;
+    private final Map<String, String> current = new HashMap<>();
+    /**
+     * The fully qualified names of the top level classes that have been added, changed or removed
+     */
+    private final Set<String> changed = new HashSet<>();
+    /**
+     * Cache of the dependencies of each class that we have looked at.
+     */
+    private final Map<String, Set<String>> edges = new HashMap<>();
+
+    private ChangeManifest(Path manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    /**
+     * Load the manifest from the output folder and compare it with the current source files.
+     * @return a ChangeManifest instance
+     * @throws IOException if the manifest or the source files cannot be read
+     */
+    public static ChangeManifest load() throws IOException {
+        ChangeManifest manifest = new ChangeManifest(Paths.get(Settings.getOutputPath(), MANIFEST_FILE));
+        File f = manifest.manifestFile.toFile();
+        if (f.exists()) {
+            manifest.previous = new ObjectMapper().readValue(f, Snapshot.class).files();
+        }
+        manifest.scan();
+        return manifest;
+    }
+
+    private void scan() throws IOException {
+        for (String source : AbstractCompiler.findSources()) {
+            String hash = ParseCache.hash(Paths.get(Settings.getBasePath(), source));
+            current.put(source, hash);
+            if (previous != null && !hash.equals(previous.get(source))) {
+                changed.add(AbstractCompiler.pathToClass(source));
+            }
+        }
+        if (previous != null) {
+            for (String source : previous.keySet()) {
+                if (!current.containsKey(source)) {
+                    changed.add(AbstractCompiler.pathToClass(source));
+                }
+            }
+            logger.info("{} classes have changed since the previous run", changed.size());
+        }
+    }
+
+    /**
+     * Should the tests for the given class be generated again?
+     * @param className the fully qualified name of a controller or a service
+     * @return true if there is no record of a previous run or if the class or any of the
+     *      classes that it depends on have been changed.
+     */
+    public boolean isAffected(String className) {
+        if (previous == null) {
+            return true;
+        }
+        Set<String> visited = new HashSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(className);
+        while (!queue.isEmpty()) {
+            String cls = queue.poll();
+            if (visited.add(cls)) {
+                if (changed.contains(cls)) {
+                    return true;
+                }
+                queue.addAll(findDependencies(cls));
+            }
+        }
+        return false;
+    }
+
+    Set<String> findDependencies(String className) {
+        Set<String> deps = edges.get(className);
+        if (deps == null) {
+            deps = new HashSet<>();
+            edges.put(className, deps);
+
+            CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(className);
+            if (cu != null) {
+                for (ClassOrInterfaceType type : cu.findAll(ClassOrInterfaceType.class)) {
+                    addDependency(deps, AbstractCompiler.findFullyQualifiedName(cu, type.getNameAsString()));
+                }
+                for (ImportDeclaration imp : cu.getImports()) {
+                    if (!imp.isAsterisk()) {
+                        addDependency(deps, imp.isStatic()
+                                ? imp.getName().getQualifier().map(Object::toString).orElse(null)
+                                : imp.getNameAsString());
+                    }
+                }
+                /*
+                 * Classes from the same package do not need to be imported and are often used
+                 * without being mentioned as a type, for example a call to a static method.
+                 */
+                String packageName = cu.getPackageDeclaration().map(NodeWithName::getNameAsString).orElse("");
+                for (NameExpr name : cu.findAll(NameExpr.class)) {
+                    if (Character.isUpperCase(name.getNameAsString().charAt(0))) {
+                        addDependency(deps, packageName + "." + name.getNameAsString());
+                    }
+                }
+            }
+            for (ClassDependency dependency : ClassProcessor.getDependencies(className)) {
+                addDependency(deps, dependency.getTo());
+            }
+            for (String dep : Set.copyOf(deps)) {
+                for (String impl : AntikytheraRunTime.findImplementations(dep)) {
+                    addDependency(deps, impl);
+                }
+            }
+        }
+        return deps;
+    }
+
+    /**
+     * Add the top level class of the given type if it belongs to the application under test.
+     */
+    private static void addDependency(Set<String> deps, String className) {
+        if (className != null && AntikytheraRunTime.hasClass(className)) {
+            CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(className);
+            if (cu != null && !cu.getTypes().isEmpty()) {
+                TypeDeclaration<?> type = AbstractCompiler.getPublicType(cu);
+                (type != null ? type : cu.getType(0)).getFullyQualifiedName().ifPresent(deps::add);
+            }
+        }
+    }
+
+    /**
+     * Save the hashes of the source files for the next run.
+     * @throws IOException if the manifest cannot be written
+     */
+    public void save() throws IOException {
+        Files.createDirectories(manifestFile.getParent());
+        new ObjectMapper().writeValue(manifestFile.toFile(), new Snapshot(current));
+    }
+
+    /**
+     * The content of the manifest file.
+     */
+    public record Snapshot(Map<String, String> files) {
+    }
+}
@@ -11,11 +11,16 @@ import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.NameExpr;
 import com.github.javaparser.ast.expr.NullLiteralExpr;
 import com.github.javaparser.ast.expr.StringLiteralExpr;
+import com.github.javaparser.ast.expr.UnaryExpr;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import com.github.javaparser.utils.Pair;
 
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -32,9 +37,23 @@ import java.util.Set;
  *
  * The values assigned may have its domain in Strings, Boolean or any other objects. This
  * implementation will only consider Numeric, Boolean and String expressions.
+ *
+ * The full table has 2^n rows for n variables, so it is only generated when it is asked for.
+ * The value of each variable in a row follows from the row number: bit j of the row number
+ * chooses between the two values in the domain of the j-th variable. So the only thing that has
+ * to be stored for each row is the outcome of the condition, which is kept in a bit set. Rows
+ * can be read one value at a time with getValue and getResult without creating any objects.
+ *
+ * Finding a single combination of values that makes the condition true or false is done with a
+ * search that evaluates the condition on partial assignments and abandons a branch as soon as
+ * its outcome is decided.
  */
 public class TruthTable {
     public static final NameExpr RESULT = new NameExpr("Result");
+    /**
+     * The outcome of a sub expression that depends on variables that have not been assigned yet
+     */
+    private static final Object UNKNOWN = new Object();
     /**
      * The condition that this truth table is for
      */
@@ -46,16 +65,45 @@ public class TruthTable {
      */
     private final HashMap<Expression, Pair<Object, Object>> variables;
 
+    /**
+     * The variables in the order used for the rows of the table. The j-th variable takes its
+     * first value when bit j of the row number is set.
+     */
+    private final Expression[] variableList;
+
+    /**
+     * The value of each variable when its bit is set in the row number, indexed like variableList
+     */
+    private final Object[] whenSet;
+    /**
+     * The value of each variable when its bit is clear in the row number
+     */
+    private final Object[] whenClear;
+
     /**
      * All the sub conditions that make up the condition.
      */
     private final Set<Expression> conditions;
 
     /**
-     * The matrix of values for the variables and the result of the condition
+     * The outcome of the condition for each row, null until the table is generated
+     */
+    private BitSet results;
+
+    /**
+     * The table as a list of maps, only created if getTable is called.
      */
     private List<Map<Expression, Object>> table;
 
+    /**
+     * The outcomes of solve for the true and false states, only meaningful once the matching
+     * flag has been set by the first call for that state.
+     */
+    private Optional<Map<Expression, Object>> whenTrue = Optional.empty();
+    private Optional<Map<Expression, Object>> whenFalse = Optional.empty();
+    private boolean solvedTrue;
+    private boolean solvedFalse;
+
     /**
      * Create a new truth table for the given condition represented as a string
      * @param conditionCode the condition as string
@@ -80,8 +128,14 @@ public class TruthTable {
          */
         this.condition.accept(new ConditionCollector(), conditions);
         this.condition.accept(new VariableCollector(), variables);
-
-        generateTruthTable();
+        this.variableList = variables.keySet().toArray(new Expression[0]);
+        this.whenSet = new Object[variableList.length];
+        this.whenClear = new Object[variableList.length];
+        for (int j = 0; j < variableList.length; j++) {
+            Pair<Object, Object> bounds = variables.get(variableList[j]);
+            whenSet[j] = bounds.a != null ? bounds.a : bounds.b;
+            whenClear[j] = bounds.a != null ? bounds.b : null;
+        }
     }
 
     private static boolean isInequality(BinaryExpr binaryExpr) {
@@ -127,39 +181,202 @@ public class TruthTable {
      * Generates a truth table for the given condition.
      */
     private void generateTruthTable() {
-        Expression[] variableList = variables.keySet().toArray(new Expression[0]);
-        int numRows = (int) Math.pow(2, variableList.length);
-
-        table = new ArrayList<>();
+        int numRows = getRowCount();
+        results = new BitSet(numRows);
 
+        /*
+         * Every variable is overwritten for each row, so the same map serves for all of them.
+         */
+        Map<Expression, Object> truthValues = new HashMap<>();
         for (int i = 0; i < numRows; i++) {
-            Map<Expression, Object> truthValues = new HashMap<>();
             for (int j = 0; j < variableList.length; j++) {
-                Expression variable = variableList[j];
-                Pair<Object, Object> bounds = variables.get(variable);
-
-                boolean value = (i & (1 << j)) != 0;
-                if (value) {
-                    if (bounds.a != null) {
-                        truthValues.put(variable, bounds.a);
-                    } else {
-                        truthValues.put(variable, bounds.b);
-                    }
-                }
-                else {
-                    if (bounds.a != null) {
-                        truthValues.put(variable, bounds.b);
-                    } else {
-                        truthValues.put(variable, null);
-                    }
-                }
+                truthValues.put(variableList[j], getValue(i, j));
+            }
+            if (isTrue(evaluateCondition(condition, truthValues))) {
+                results.set(i);
+            }
+        }
+    }
+
+    /**
+     * The value that a variable takes for a given bit of the row number.
+     */
+    private Object valueOf(int variable, boolean bit) {
+        return bit ? whenSet[variable] : whenClear[variable];
+    }
+
+    private BitSet results() {
+        if (results == null) {
+            generateTruthTable();
+        }
+        return results;
+    }
+
+    /**
+     * @return the number of rows in the truth table, which is 2^n for n variables
+     */
+    public int getRowCount() {
+        return 1 << variableList.length;
+    }
+
+    /**
+     * @return the number of variables in the condition
+     */
+    public int getVariableCount() {
+        return variableList.length;
+    }
+
+    /**
+     * @param variable the index of a variable, between 0 and getVariableCount() - 1
+     * @return the expression for that variable
+     */
+    public Expression getVariable(int variable) {
+        return variableList[variable];
+    }
+
+    /**
+     * The value of a variable in a row of the truth table.
+     * @param row the row number
+     * @param variable the index of the variable
+     * @return the value assigned to the variable in that row
+     */
+    public Object getValue(int row, int variable) {
+        return valueOf(variable, (row & (1 << variable)) != 0);
+    }
+
+    /**
+     * The outcome of the condition in a row of the truth table.
+     * @param row the row number
+     * @return true if the condition holds for the values in that row
+     */
+    public boolean getResult(int row) {
+        return results().get(row);
+    }
 
+    /**
+     * The values of the variables in a row as a map
+     * @param row the row number
+     * @return a new map with each variable as the key
+     */
+    private Map<Expression, Object> getRow(int row) {
+        Map<Expression, Object> values = new HashMap<>();
+        for (int j = 0; j < variableList.length; j++) {
+            values.put(variableList[j], getValue(row, j));
+        }
+        return values;
+    }
+
+    /**
+     * The indexes of the variables sorted by their names, which is the order they are printed in.
+     */
+    private Integer[] sortedVariables() {
+        Integer[] sorted = new Integer[variableList.length];
+        for (int j = 0; j < sorted.length; j++) {
+            sorted[j] = j;
+        }
+        Arrays.sort(sorted, Comparator.comparing(j -> variableList[j].toString()));
+        return sorted;
+    }
+
+    /**
+     * Find a combination of values that makes the condition true or false without generating
+     * the truth table.
+     *
+     * The variables are assigned one at a time in the same order as the rows of the table are
+     * numbered, and after each assignment the condition is evaluated as far as it can be. A branch
+     * is abandoned as soon as the condition is known to have the wrong outcome, and the search
+     * stops as soon as it is known to have the right one. The result is the same as the first
+     * row returned by findValuesForCondition.
+     *
+     * The search is only carried out once for each state, later calls return the same result.
+     *
+     * @param desiredState either true or false
+     * @return the values for all the variables as an unmodifiable map, or an empty optional if no
+     *      combination of values makes the condition have the desired state.
+     */
+    public Optional<Map<Expression, Object>> solve(boolean desiredState) {
+        if (desiredState ? solvedTrue : solvedFalse) {
+            return desiredState ? whenTrue : whenFalse;
+        }
+        Map<Expression, Object> values = new HashMap<>();
+        Optional<Map<Expression, Object>> solution = search(variableList.length - 1, values, desiredState)
+                ? Optional.of(Collections.unmodifiableMap(values)) : Optional.empty();
+        if (desiredState) {
+            whenTrue = solution;
+            solvedTrue = true;
+        } else {
+            whenFalse = solution;
+            solvedFalse = true;
+        }
+        return solution;
+    }
+
+    private boolean search(int j, Map<Expression, Object> values, boolean desiredState) {
+        Object result = evaluatePartially(condition, values);
+        if (result != UNKNOWN) {
+            if (isTrue(result) != desiredState) {
+                return false;
+            }
+            for (int k = j; k >= 0; k--) {
+                values.put(variableList[k], valueOf(k, false));
             }
-            Object result = evaluateCondition(condition, truthValues);
+            return true;
+        }
+        if (j < 0) {
+            return false;
+        }
+        Expression variable = variableList[j];
+        values.put(variable, valueOf(j, false));
+        if (search(j - 1, values, desiredState)) {
+            return true;
+        }
+        values.put(variable, valueOf(j, true));
+        if (search(j - 1, values, desiredState)) {
+            return true;
+        }
+        values.remove(variable);
+        return false;
+    }
 
-            truthValues.put(RESULT, isTrue(result));
-            table.add(truthValues);
+    /**
+     * Evaluates the condition with only some of the variables assigned.
+     * Logical operators are decided as soon as one side determines the outcome. Everything else
+     * is evaluated only when all the variables that it contains have values.
+     *
+     * @param condition the condition or sub condition to evaluate
+     * @param truthValues the variables assigned so far
+     * @return the result of the evaluation or UNKNOWN
+     */
+    private Object evaluatePartially(Expression condition, Map<Expression, Object> truthValues) {
+        if (condition.isEnclosedExpr()) {
+            return evaluatePartially(condition.asEnclosedExpr().getInner(), truthValues);
+        }
+        if (condition.isUnaryExpr() && condition.asUnaryExpr().getOperator() == UnaryExpr.Operator.LOGICAL_COMPLEMENT) {
+            Object value = evaluatePartially(condition.asUnaryExpr().getExpression(), truthValues);
+            return value == UNKNOWN ? UNKNOWN : !(Boolean) value;
         }
+        if (condition.isBinaryExpr()) {
+            BinaryExpr binaryExpr = condition.asBinaryExpr();
+            BinaryExpr.Operator operator = binaryExpr.getOperator();
+            if (operator == BinaryExpr.Operator.AND || operator == BinaryExpr.Operator.OR) {
+                boolean decisive = operator == BinaryExpr.Operator.OR;
+                Object left = evaluatePartially(binaryExpr.getLeft(), truthValues);
+                if (left != UNKNOWN && (Boolean) left == decisive) {
+                    return decisive;
+                }
+                Object right = evaluatePartially(binaryExpr.getRight(), truthValues);
+                if (right != UNKNOWN && (Boolean) right == decisive) {
+                    return decisive;
+                }
+                return left == UNKNOWN || right == UNKNOWN ? UNKNOWN : !decisive;
+            }
+        }
+        for (Node node : condition.findAll(Node.class)) {
+            if (node instanceof Expression e && variables.containsKey(e) && !truthValues.containsKey(e)) {
+                return UNKNOWN;
+            }
+        }
+        return evaluateCondition(condition, truthValues);
     }
 
     public static boolean isTrue(Object o) {
@@ -185,35 +402,22 @@ public class TruthTable {
     private void writeTruthTable(PrintStream out) {
         out.println("Truth Table for condition: " + condition);
 
-        if (!table.isEmpty()) {
-            Map<Expression, Object> firstRow = table.get(0);
-            final String FORMAT = "%-11s";
+        final String FORMAT = "%-11s";
+        Integer[] sorted = sortedVariables();
 
-            // Sort the keys alphabetically
-            List<String> sortedKeys = firstRow.keySet().stream()
-                    .map(Expression::toString)
-                    .sorted()
-                    .toList();
+        for (int j : sorted) {
+            out.printf(FORMAT, variableList[j]);
+        }
+        out.printf(FORMAT, RESULT);
+        out.println();
 
-            for (String key : sortedKeys) {
-                if (!key.equals(RESULT.toString())) {
-                    out.printf(FORMAT, key);
-                }
+        int numRows = getRowCount();
+        for (int i = 0; i < numRows; i++) {
+            for (int j : sorted) {
+                out.printf(FORMAT, getValue(i, j));
             }
-            out.printf(FORMAT, RESULT);
+            out.printf(FORMAT, getResult(i));
             out.println();
-
-            for (Map<Expression, Object> row : table) {
-                for (String key : sortedKeys) {
-                    if (!key.equals(RESULT.toString())) {
-                        out.printf(FORMAT, row.get(new NameExpr(key)));
-                    }
-                }
-                out.printf(FORMAT, row.get(RESULT));
-                out.println();
-            }
-        } else {
-            out.println("No data to display.");
         }
     }
 
@@ -228,18 +432,10 @@ public class TruthTable {
         String state = desiredState ? "true" : "false";
         out.println("\nValues to make the condition " + state + " for: " + condition);
 
-        List<Map<Expression, Object>> values = findValuesForCondition(desiredState);
-
-        values.stream().findFirst().ifPresentOrElse(
+        solve(desiredState).ifPresentOrElse(
                 row -> {
-                    // Sort the keys alphabetically
-                    List<String> sortedKeys = row.keySet().stream()
-                            .map(Expression::toString)
-                            .sorted()
-                            .toList();
-
-                    for (String key : sortedKeys) {
-                        out.printf("%-10s", key + "=" + row.get(new NameExpr(key)));
+                    for (int j : sortedVariables()) {
+                        out.printf("%-10s", variableList[j] + "=" + row.get(variableList[j]));
                     }
                     out.println();
                 },
@@ -256,16 +452,12 @@ public class TruthTable {
     public List<Map<Expression, Object>> findValuesForCondition(boolean desiredState) {
         List<Map<Expression, Object>> result = new ArrayList<>();
 
-        for (Map<Expression, Object> row : table) {
-            if ((boolean) row.get(RESULT) == desiredState) {
-                Map<Expression, Object> copy = new HashMap<>();
-                for (Map.Entry<Expression, Object> entry : row.entrySet()) {
-                    if (!entry.getKey().equals(RESULT)) {
-                        copy.put(entry.getKey(), entry.getValue());
-                    }
-                }
-                result.add(copy);
-            }
+        BitSet rows = results();
+        int numRows = getRowCount();
+        for (int i = desiredState ? rows.nextSetBit(0) : rows.nextClearBit(0);
+             i >= 0 && i < numRows;
+             i = desiredState ? rows.nextSetBit(i + 1) : rows.nextClearBit(i + 1)) {
+            result.add(getRow(i));
         }
 
         return result;
@@ -380,7 +572,27 @@ public class TruthTable {
         return truthValues.get(expr);
     }
 
+    public Expression getCondition() {
+        return condition;
+    }
+
+    /**
+     * The truth table as a list of maps.
+     * Each map holds the values of the variables in one row and the outcome under the RESULT key.
+     * The maps are created the first time this method is called, getValue and getResult provide
+     * the same information without creating them.
+     * @return the rows of the truth table
+     */
     public List<Map<Expression, Object>> getTable() {
+        if (table == null) {
+            int numRows = getRowCount();
+            table = new ArrayList<>(numRows);
+            for (int i = 0; i < numRows; i++) {
+                Map<Expression, Object> row = getRow(i);
+                row.put(RESULT, getResult(i));
+                table.add(row);
+            }
+        }
         return table;
     }
 
@@ -1,5 +1,6 @@
 package sa.com.cloudsolutions.antikythera.parser;
 
+import com.github.javaparser.ast.DataKey;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.NodeList;
@@ -28,7 +29,6 @@ import com.github.javaparser.ast.body.Parameter;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 
@@ -36,6 +36,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
@@ -46,13 +47,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import sa.com.cloudsolutions.antikythera.depsolver.InterfaceSolver;
 import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
 import sa.com.cloudsolutions.antikythera.evaluator.Reflect;
 import sa.com.cloudsolutions.antikythera.evaluator.ReflectionArguments;
+import sa.com.cloudsolutions.antikythera.evaluator.ReflectionCache;
+import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
 import sa.com.cloudsolutions.antikythera.generator.Antikythera;
 
 /**
@@ -76,10 +83,14 @@ public class AbstractCompiler {
      */
     public static final String SUFFIX = ".java";
 
-    private static JavaParser javaParser;
+    /**
+     * JavaParser instances are not thread safe, so each thread that parses source code gets its
+     * own parser. All of them share the same configuration and symbol resolver.
+     */
+    private static ThreadLocal<JavaParser> javaParser;
     protected static JavaSymbolSolver symbolResolver;
     protected static CombinedTypeSolver combinedTypeSolver;
-    protected static ArrayList<JarTypeSolver> jarSolvers;
+    protected static ArrayList<LazyJarTypeSolver> jarSolvers;
     protected static ClassLoader loader;
     protected CompilationUnit cu;
     protected String className;
@@ -108,12 +119,16 @@ public class AbstractCompiler {
         }
 
         for(String jarFile : jarFiles) {
-            JarTypeSolver jarSolver = new JarTypeSolver(jarFile);
+            LazyJarTypeSolver jarSolver = new LazyJarTypeSolver(Paths.get(jarFile));
             jarSolvers.add(jarSolver);
             combinedTypeSolver.add(jarSolver);
         }
+        JarIndex.save();
 
         loader = new URLClassLoader(urls.toArray(new URL[0]), AbstractCompiler.class.getClassLoader());
+        TypeIndex.reset();
+        ClassLookup.reset();
+        ReflectionCache.reset();
 
         Collection<String> finch = Settings.getPropertyList("finch", String.class);
 
@@ -123,7 +138,14 @@ public class AbstractCompiler {
 
         symbolResolver = new JavaSymbolSolver(combinedTypeSolver);
         ParserConfiguration parserConfiguration = new ParserConfiguration().setSymbolResolver(symbolResolver);
-        javaParser = new JavaParser(parserConfiguration);
+        if (Settings.getProperty("lean_parse", Boolean.class).orElse(false)) {
+            /*
+             * Comments account for a large share of the memory used by the AST and are not
+             * needed to generate tests. Tokens are kept because node ranges depend on them.
+             */
+            parserConfiguration.setAttributeComments(false);
+        }
+        javaParser = ThreadLocal.withInitial(() -> new JavaParser(parserConfiguration));
     }
 
     /**
@@ -154,11 +176,7 @@ public class AbstractCompiler {
     }
 
     public static Class<?> loadClass(String resolvedClass) throws ClassNotFoundException {
-        try {
-            return Class.forName(resolvedClass);
-        } catch (ClassNotFoundException cnf) {
-            return loader.loadClass(resolvedClass);
-        }
+        return ClassLookup.loadClass(resolvedClass);
     }
 
     public static void reset() throws IOException {
@@ -205,18 +223,28 @@ public class AbstractCompiler {
             return true;
         }
 
+        cu = parseSource(relativePath);
+        cache(cu);
+        return false;
+    }
+
+    /**
+     * Parse the source code at the relative path without looking at or updating the cache.
+     * @param relativePath a path name relative to the base path of the application.
+     * @return the compilation unit
+     * @throws FileNotFoundException when the source code cannot be found
+     */
+    static CompilationUnit parseSource(String relativePath) throws FileNotFoundException {
         Path sourcePath = Paths.get(Settings.getBasePath(), relativePath);
 
         File file = sourcePath.toFile();
 
         // Proceed with parsing the controller file
         FileInputStream in = new FileInputStream(file);
-        cu = javaParser.parse(in).getResult().orElseThrow(() -> new IllegalStateException("Parse error"));
-        cache(cu);
-        return false;
+        return javaParser.get().parse(in).getResult().orElseThrow(() -> new IllegalStateException("Parse error"));
     }
 
-    private void cache(CompilationUnit cu) {
+    static void cache(CompilationUnit cu) {
         for (TypeDeclaration<?> type : findContainedTypes(cu)) {
             type.getFullyQualifiedName().ifPresent(
                     cname -> AntikytheraRunTime.addClass(cname, cu)
@@ -224,7 +252,7 @@ public class AbstractCompiler {
         }
     }
 
-    private static List<TypeDeclaration> findContainedTypes(CompilationUnit cu) {
+    static List<TypeDeclaration> findContainedTypes(CompilationUnit cu) {
         List<TypeDeclaration> types = new ArrayList<>();
         for (TypeDeclaration<?> type : cu.getTypes()) {
             types.add(type);
@@ -316,7 +344,7 @@ public class AbstractCompiler {
     }
 
     protected JavaParser getJavaParser() {
-        return javaParser;
+        return javaParser.get();
     }
 
     /**
@@ -421,12 +449,22 @@ public class AbstractCompiler {
      * @return the fully qualified name of the class.
      */
     public static String findFullyQualifiedName(CompilationUnit cu, String className) {
+        ResolutionMemo memo = ResolutionMemo.of(cu);
+        String fqn = memo.names.get(className);
+        if (fqn == null) {
+            fqn = resolveFullyQualifiedName(cu, className);
+            memo.names.put(className, fqn == null ? ResolutionMemo.NOT_FOUND : fqn);
+        }
+        return fqn == ResolutionMemo.NOT_FOUND ? null : fqn;
+    }
+
+    private static String resolveFullyQualifiedName(CompilationUnit cu, String className) {
         /*
          * First check if the compilation unit directly contains it.
          * Then check if there exists an import that ends with the short class name as it's last component.
          * Check if the package folder contains a java source file with the same name
-         * Lastly, we will try to invoke Class.forName to see if the class can be located in any jar file
-         *    that we have loaded.
+         * Lastly, we will check the type index to see if the class can be located in any jar file
+         *    that we have loaded or in the java.lang package.
          */
 
         TypeDeclaration<?> p = getMatchingType(cu, className);
@@ -443,40 +481,52 @@ public class AbstractCompiler {
         }
 
         String packageName = cu.getPackageDeclaration().map(NodeWithName::getNameAsString).orElse("");
-        String fileName = packageName + "." + className + SUFFIX;
-        if (new File(Settings.getBasePath(), classToPath(fileName)).exists()) {
+        if (TypeIndex.isSourceType(packageName, className)) {
             return packageName + "." + className;
         }
 
-        try {
-            Class.forName(className);
+        if (TypeIndex.contains(className)) {
             return className;
-        } catch (ClassNotFoundException e) {
-            /*
-             * It's ok to silently ignore this one. It just means that the class cannot be
-             * located in a jar. That maybe because we don't still have a fully qualified name.
-             */
         }
 
-        try {
-            Class.forName("java.lang." + className);
+        if (TypeIndex.contains("java.lang", className)) {
             return "java.lang." + className;
-        } catch (ClassNotFoundException ex) {
-            /*
-             * Once again ignore the exception. We don't have the class in the lang package
-             * but it can probably still be found in the same package as the current CU
-             */
         }
+        return null;
+    }
 
-        try {
-            Class.forName(packageName + className);
-            return packageName + className;
-        } catch (ClassNotFoundException ex) {
-            /*
-             * Once again ignore the exception. We don't have the class in the lang package
-             * but it can probably still be found in the same package as the current CU
-             */
-            return null;
+    /**
+     * Remembers the names that have been resolved for a compilation unit.
+     * The memo is discarded when a {@link ResolutionWatch} says that the names may now resolve
+     * differently.
+     */
+    private static class ResolutionMemo {
+        private static final DataKey<ResolutionMemo> KEY = new DataKey<>() {};
+        /**
+         * Marker for names that could not be resolved, because the concurrent map does not
+         * accept null values.
+         */
+        private static final String NOT_FOUND = new String("");
+
+        private final Map<String, String> names = new ConcurrentHashMap<>();
+        private final ResolutionWatch watch;
+
+        private ResolutionMemo(CompilationUnit cu) {
+            this.watch = new ResolutionWatch(cu);
+        }
+
+        static ResolutionMemo of(CompilationUnit cu) {
+            synchronized (cu) {
+                if (cu.containsData(KEY)) {
+                    ResolutionMemo memo = cu.getData(KEY);
+                    if (memo.watch.isValid(cu)) {
+                        return memo;
+                    }
+                }
+                ResolutionMemo memo = new ResolutionMemo(cu);
+                cu.setData(KEY, memo);
+                return memo;
+            }
         }
     }
 
@@ -514,11 +564,16 @@ public class AbstractCompiler {
      * @return the import declaration or null if not found
      */
     public static ImportWrapper findImport(CompilationUnit cu, String className) {
-        ImportWrapper imp = findNonWildcardImport(cu, className);
+        ImportTable table = ImportTable.of(cu);
+        return table.get(className, name -> resolveImport(table, name));
+    }
+
+    private static ImportWrapper resolveImport(ImportTable table, String className) {
+        ImportWrapper imp = findNonWildcardImport(table, className);
         if (imp != null) {
             return imp;
         }
-        imp = findWildcardImport(cu, className);
+        imp = findWildcardImport(table, className);
         if (imp != null) {
             return imp;
         }
@@ -528,51 +583,48 @@ public class AbstractCompiler {
          * which is used precisely for situations where we have a nearly impossible import to
          * resolve
          */
-        for (Object e : Settings.getProperty("extra_exports", List.class).orElseGet(List::of)) {
-            if (e.toString().endsWith(className)) {
-                return new ImportWrapper(new ImportDeclaration(e.toString(), false, false), true);
-            }
+        String export = table.getExtraExport(className);
+        if (export != null) {
+            return new ImportWrapper(new ImportDeclaration(export, false, false), true);
         }
         return null;
     }
 
-    private static ImportWrapper findNonWildcardImport(CompilationUnit cu, String className) {
-        for (ImportDeclaration imp : cu.getImports()) {
-            if (imp.getNameAsString().equals(className) && !imp.isAsterisk()) {
-                /*
-                 * Easy one straight-up match involving a fully qualified name as className
-                 */
-                return new ImportWrapper(imp);
-            }
+    private static ImportWrapper findNonWildcardImport(ImportTable table, String className) {
+        ImportDeclaration imp = table.getNamedImport(className);
+        if (imp == null) {
+            return null;
+        }
+        if (imp.getNameAsString().equals(className)) {
+            /*
+             * Easy one straight-up match involving a fully qualified name as className
+             */
+            return new ImportWrapper(imp);
+        }
 
-            Name importName = imp.getName();
-            if (className.equals(importName.getIdentifier()) && !imp.isAsterisk()) {
-                /*
-                 * last part of the import matches the class name
-                 */
-                ImportWrapper wrapper = new ImportWrapper(imp);
-                if (!imp.isStatic()) {
-                    CompilationUnit target = AntikytheraRunTime.getCompilationUnit(imp.getNameAsString());
-                    if (target != null) {
-                        TypeDeclaration<?> p = getMatchingType(target, importName.getIdentifier());
-                        wrapper.setExternal(false);
-                        setTypeAndField(className, p, wrapper, target);
-                    }
+        /*
+         * last part of the import matches the class name
+         */
+        Name importName = imp.getName();
+        ImportWrapper wrapper = new ImportWrapper(imp);
+        if (!imp.isStatic()) {
+            CompilationUnit target = AntikytheraRunTime.getCompilationUnit(imp.getNameAsString());
+            if (target != null) {
+                TypeDeclaration<?> p = getMatchingType(target, importName.getIdentifier());
+                wrapper.setExternal(false);
+                setTypeAndField(className, p, wrapper, target);
+            }
 
-                }
-                else if (importName.getQualifier().isPresent()){
-                    CompilationUnit target = AntikytheraRunTime.getCompilationUnit(importName.getQualifier().get().toString());
-                    if (target != null) {
-                        TypeDeclaration<?> p = getPublicType(target);
-                        setTypeAndField(className, p, wrapper, target);
-                        wrapper.setExternal(false);
-                    }
-                }
-                return wrapper;
+        }
+        else if (importName.getQualifier().isPresent()){
+            CompilationUnit target = AntikytheraRunTime.getCompilationUnit(importName.getQualifier().get().toString());
+            if (target != null) {
+                TypeDeclaration<?> p = getPublicType(target);
+                setTypeAndField(className, p, wrapper, target);
+                wrapper.setExternal(false);
             }
         }
-
-        return null;
+        return wrapper;
     }
 
     private static void setTypeAndField(String className, TypeDeclaration<?> p, ImportWrapper wrapper, CompilationUnit target) {
@@ -587,43 +639,31 @@ public class AbstractCompiler {
               .ifPresent(wrapper::setMethodDeclaration);
     }
 
-     static ImportWrapper findWildcardImport(CompilationUnit cu, String className) {
-        for (ImportDeclaration imp : cu.getImports()) {
-            if (imp.isAsterisk() && !className.contains("\\.")) {
-                String impName = imp.getNameAsString();
-
-                String fullClassName = impName + "." + className;
-                try {
-                    Class.forName(fullClassName);
-                    /*
-                     * Wild card import. Append the class name to the end and load the class,
-                     * we are on this line because it has worked so this is the correct import.
-                     */
-                    ImportWrapper wrapper = new ImportWrapper(imp, true);
-                    ImportDeclaration decl = new ImportDeclaration(fullClassName, imp.isStatic(), false);
-                    wrapper.setSimplified(decl);
-                    return wrapper;
-                } catch (ClassNotFoundException e) {
-                    try {
-                        AbstractCompiler.loadClass(fullClassName);
-                        /*
-                         * We are here because the previous attempt at class forname was
-                         * unsuccessfully simply because the class had not been loaded.
-                         * Here we have loaded it, which obviously means it's there
-                         */
-                        return new ImportWrapper(imp, true);
-                    } catch (ClassNotFoundException ex) {
-                        /*
-                         * There's one more thing that we can try, append the class name to the
-                         * end of the wildcard import and see if the corresponding file can be
-                         * located on the base folder.
-                         */
-                        ImportWrapper wrapper = fakeImport(className, imp, fullClassName, impName);
-                        if (wrapper != null) return wrapper;
-                    }
+    static ImportWrapper findWildcardImport(CompilationUnit cu, String className) {
+        return findWildcardImport(ImportTable.of(cu), className);
+    }
 
-                }
+    private static ImportWrapper findWildcardImport(ImportTable table, String className) {
+        ImportDeclaration match = table.getExpandedImport(className);
+        for (ImportDeclaration imp : table.getWildcards()) {
+            String impName = imp.getNameAsString();
+            String fullClassName = impName + "." + className;
+            if (imp == match) {
+                /*
+                 * Wild card import. The class exists in the package so this is the correct import.
+                 */
+                ImportWrapper wrapper = new ImportWrapper(imp, true);
+                ImportDeclaration decl = new ImportDeclaration(fullClassName, imp.isStatic(), false);
+                wrapper.setSimplified(decl);
+                return wrapper;
             }
+            /*
+             * There's one more thing that we can try, append the class name to the
+             * end of the wildcard import and see if the corresponding file can be
+             * located on the base folder.
+             */
+            ImportWrapper wrapper = fakeImport(className, imp, fullClassName, impName);
+            if (wrapper != null) return wrapper;
         }
         return null;
     }
@@ -671,33 +711,48 @@ public class AbstractCompiler {
 
     public static Optional<Callable> findConstructorDeclaration(MCEWrapper methodCall,
                                                                     TypeDeclaration<?> decl) {
-        int found = -1;
-        int occurs = 0;
-        List<ConstructorDeclaration> constructors = decl.getConstructors();
-        for (int i =0 ; i < constructors.size() ; i++) {
-            ConstructorDeclaration constructor = constructors.get(i);
-            Optional<CallableDeclaration<?>> callable = matchCallable(methodCall.getArgumentTypes(), constructor);
-            if (callable.isPresent() && callable.get() instanceof ConstructorDeclaration md) {
-                return Optional.of(new Callable(md));
-            }
-            if (methodCall.getArgumentTypes() != null &&
-                    constructor.getParameters().size() == methodCall.getArgumentTypes().size()) {
-                found = i;
-                occurs++;
+        MethodIndex index = MethodIndex.of(decl);
+        return index.resolve("<init>" + methodCall.getSignature(), () -> resolveConstructor(methodCall, decl, index));
+    }
+
+    private static Optional<Callable> resolveConstructor(MCEWrapper methodCall, TypeDeclaration<?> decl, MethodIndex index) {
+        if (methodCall.getArgumentTypes() != null) {
+            int arity = methodCall.getArgumentTypes().size();
+            for (CallableDeclaration<?> constructor : index.getCandidates(null, arity)) {
+                Optional<CallableDeclaration<?>> callable = matchCallable(methodCall.getArgumentTypes(), constructor);
+                if (callable.isPresent() && callable.get() instanceof ConstructorDeclaration md) {
+                    return Optional.of(new Callable(md));
+                }
             }
         }
 
-        Optional<Callable> c = findCallableInParent(methodCall, decl);
+        Optional<Callable> c = findCallableInParent(methodCall, index);
         if (c.isPresent()) {
             return c;
         }
 
-        if (found != -1 && occurs == 1) {
-            return Optional.of(new Callable(constructors.get(found)));
+        if (methodCall.getArgumentTypes() != null) {
+            return onlyOne(index.getCallables(null), methodCall.getArgumentTypes().size());
         }
         return Optional.empty();
     }
 
+    /**
+     * The fallback when the argument types do not match: if there is exactly one callable with
+     * the right number of parameters, that must be the one.
+     */
+    private static Optional<Callable> onlyOne(List<CallableDeclaration<?>> callables, int arity) {
+        CallableDeclaration<?> found = null;
+        for (CallableDeclaration<?> callable : callables) {
+            if (callable.getParameters().size() == arity) {
+                if (found != null) {
+                    return Optional.empty();
+                }
+                found = callable;
+            }
+        }
+        return found == null ? Optional.empty() : Optional.of(new Callable(found));
+    }
 
     public static Optional<Callable> findMethodDeclaration(MCEWrapper methodCall,
                                                                          TypeDeclaration<?> decl) {
@@ -708,75 +763,53 @@ public class AbstractCompiler {
                                                                          TypeDeclaration<?> decl, boolean overRides) {
 
         if (methodCall.getMethodCallExpr() instanceof MethodCallExpr mce) {
-            int found = -1;
-            int occurs = 0;
-            List<MethodDeclaration> methodsByName = decl.getMethodsByName(methodCall.getMethodName());
-
-            for (int i = 0; i < methodsByName.size(); i++) {
-                MethodDeclaration method = methodsByName.get(i);
-                if (methodCall.getArgumentTypes() != null) {
-                    Optional<CallableDeclaration<?>> callable = matchCallable(methodCall.getArgumentTypes(), method);
-                    if (callable.isPresent() && callable.get() instanceof MethodDeclaration md) {
-                        return Optional.of(new Callable(md));
-                    }
-                }
-                if (method.getParameters().size() == mce.getArguments().size()) {
-                    found = i;
-                    occurs++;
-                }
-            }
+            MethodIndex index = MethodIndex.of(decl);
+            String signature = (overRides ? "" : "!") + methodCall.getSignature();
+            return index.resolve(signature, () -> resolveMethod(methodCall, mce, index, overRides));
+        }
 
-            if (overRides) {
-                Optional<Callable> method = findCallableInParent(methodCall, decl);
-                if (method.isPresent()) {
-                    return method;
+        return Optional.empty();
+    }
+
+    private static Optional<Callable> resolveMethod(MCEWrapper methodCall, MethodCallExpr mce, MethodIndex index, boolean overRides) {
+        if (methodCall.getArgumentTypes() != null) {
+            int arity = methodCall.getArgumentTypes().size();
+            for (CallableDeclaration<?> method : index.getCandidates(methodCall.getMethodName(), arity)) {
+                Optional<CallableDeclaration<?>> callable = matchCallable(methodCall.getArgumentTypes(), method);
+                if (callable.isPresent() && callable.get() instanceof MethodDeclaration md) {
+                    return Optional.of(new Callable(md));
                 }
             }
+        }
 
-            if (found != -1 && occurs == 1) {
-                return Optional.of(new Callable(methodsByName.get(found)));
+        if (overRides) {
+            Optional<Callable> method = findCallableInParent(methodCall, index);
+            if (method.isPresent()) {
+                return method;
             }
         }
 
-        return Optional.empty();
+        return onlyOne(index.getCallables(methodCall.getMethodName()), mce.getArguments().size());
     }
 
-    private static Optional<Callable> findCallableInParent(MCEWrapper methodCall, TypeDeclaration<?> decl) {
-        if (decl.isClassOrInterfaceDeclaration()) {
-            ClassOrInterfaceDeclaration cdecl = decl.asClassOrInterfaceDeclaration();
-
-            for (ClassOrInterfaceType extended : cdecl.getExtendedTypes()) {
-                Optional<CompilationUnit> compilationUnit = cdecl.findCompilationUnit();
-                if (compilationUnit.isPresent()) {
-                    String fullName = findFullyQualifiedName(compilationUnit.get(), extended.getNameAsString());
-                    CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(fullName);
-                    if (cu != null) {
-                        TypeDeclaration<?> p = getMatchingType(cu, extended.getNameAsString());
-                        Optional<Callable> method = findCallableDeclaration(methodCall, p);
-                        if (method.isPresent()) {
-                            return method;
-                        }
-                    } else {
-                        /*
-                         * the extended type is not in the same compilation unit, we will have to
-                         * load the class and try to find the method in it.
-                         */
-                        ImportWrapper wrapper = findImport(decl.findCompilationUnit().get(), extended.getNameAsString());
-                        if (wrapper != null && wrapper.isExternal()) {
-                            try {
-                                Class<?> clazz = AbstractCompiler.loadClass(wrapper.getNameAsString());
-                                ReflectionArguments reflectionArguments = new ReflectionArguments(
-                                        methodCall.getMethodName(), new Object[] {}, methodCall.getArgumentTypesAsClasses()
-                                );
-                                Method method = Reflect.findMethod(clazz, reflectionArguments);
-                                if (method != null) {
-                                    return Optional.of(new Callable(method));
-                                }
-                            } catch (ClassNotFoundException e) {
-                                return Optional.empty();
-                            }
-                        }
-                    }
+    private static Optional<Callable> findCallableInParent(MCEWrapper methodCall, MethodIndex index) {
+        for (MethodIndex.Parent parent : index.getParents()) {
+            if (parent.type() != null) {
+                Optional<Callable> method = findCallableDeclaration(methodCall, parent.type());
+                if (method.isPresent()) {
+                    return method;
+                }
+            } else if (parent.cls() != null) {
+                /*
+                 * the extended type is not in the application under test, we will have to
+                 * use reflection to try to find the method in it.
+                 */
+                ReflectionArguments reflectionArguments = new ReflectionArguments(
+                        methodCall.getMethodName(), new Object[] {}, methodCall.getArgumentTypesAsClasses()
+                );
+                Method method = Reflect.findMethod(parent.cls(), reflectionArguments);
+                if (method != null) {
+                    return Optional.of(new Callable(method));
                 }
             }
         }
@@ -796,24 +829,114 @@ public class AbstractCompiler {
      * Precompile all the java files in the base folder.
      * While doing so we will try to determine what interfaces are implemented by each class.
      *
+     * The work is done in two passes. The first pass parses every file and the second one
+     * builds the interface and subclass relationships. Since all the compilation units are
+     * available before the second pass starts, the outcome does not depend on the order in
+     * which the files are visited. That allows both passes to be spread across several threads
+     * when the parallelism setting is greater than one.
+     *
+     * Files that have not changed since the results were last saved to the parse cache are not
+     * processed at all. Their classes are registered straight away and will only be parsed if
+     * and when they are needed.
+     *
+     * When lazy_loading is enabled, the same applies to files that do not extend or implement
+     * anything. The rest are parsed to find out their relationships and then unloaded.
+     *
      * @throws IOException when the files cannot be precompiled.
      */
     public static void preProcess() throws IOException {
-        try (var paths = Files.walk(Paths.get(Settings.getBasePath()))) {
-            List<File> javaFiles = paths
+        HeapMetrics.log("Before pre processing");
+        List<String> sources = findSources();
+
+        ParseCache parseCache = ParseCache.open();
+        List<String> stale = parseCache.restore(sources);
+        boolean lazy = Settings.getProperty("lazy_loading", Boolean.class).orElse(false);
+        if (lazy) {
+            stale = SourceIndex.register(stale);
+        }
+
+        int parallelism = getParallelism();
+        processSources(stale, parallelism, path -> new AbstractCompiler().compile(path));
+        processSources(stale, parallelism, path -> {
+            InterfaceSolver solver = new InterfaceSolver();
+            solver.compile(path);
+            parseCache.update(path, solver);
+        });
+        parseCache.save();
+
+        if (lazy || LazyCompilationUnit.isEvictionEnabled()) {
+            SourceIndex.unload(stale);
+        }
+        HeapMetrics.log("After pre processing");
+    }
+
+    /**
+     * Find all the java source files in the base folder.
+     * @return the paths of the source files relative to the base path
+     * @throws IOException if the base folder cannot be read
+     */
+    public static List<String> findSources() throws IOException {
+        Path basePath = Paths.get(Settings.getBasePath());
+        try (var paths = Files.walk(basePath)) {
+            return paths
                     .filter(Files::isRegularFile)
                     .filter(path -> path.toString().endsWith(SUFFIX))
-                    .map(Path::toFile)
+                    .map(path -> basePath.relativize(path).toString())
                     .toList();
+        }
+    }
+
+    /**
+     * The number of threads to use for pre-processing.
+     * @return the parallelism setting from the configuration, defaults to 1 which means that the
+     *      files will be processed one after the other in the calling thread.
+     */
+    static int getParallelism() {
+        Object parallelism = Settings.getProperty("parallelism");
+        if (parallelism == null) {
+            return 1;
+        }
+        return Math.max(1, Integer.parseInt(parallelism.toString().strip()));
+    }
 
-            for (File javaFile : javaFiles) {
-                InterfaceSolver solver = new InterfaceSolver();
-                solver.compile(Paths.get(Settings.getBasePath()).relativize(javaFile.toPath()).toString());
+    private static void processSources(List<String> sources, int parallelism, SourceTask task) throws IOException {
+        if (parallelism == 1) {
+            for (String source : sources) {
+                task.process(source);
             }
+            return;
+        }
 
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> sources.parallelStream().forEach(source -> {
+                try {
+                    task.process(source);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AntikytheraException("Interrupted while pre processing sources", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException uio) {
+                throw uio.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new AntikytheraException(e.getCause());
+        } finally {
+            pool.shutdown();
         }
     }
 
+    @FunctionalInterface
+    private interface SourceTask {
+        void process(String relativePath) throws IOException;
+    }
+
     public static TypeDeclaration<?> getEnclosingClassOrInterface(Node n) {
         if (n instanceof ClassOrInterfaceDeclaration cdecl) {
             return cdecl;
@@ -0,0 +1,122 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Remembers the outcome of loading a class by name.</p>
+ *
+ * The same class names are looked up over and over again while evaluating code, and most of the
+ * lookups that fail will keep failing: a ClassNotFoundException is expensive because the stack trace
+ * has to be filled in and every jar on the class path has to be searched. Both the classes that
+ * were found and the names that could not be loaded are kept here. The cache is bounded; when it
+ * fills up it is simply emptied. It must be reset whenever the class loader changes.
+ */
+public class ClassLookup {
+    private static final int MAX_ENTRIES = 50_000;
+
+    /**
+     * Placeholder for names that could not be loaded, the map does not accept null values. It
+     * has to be a class that no lookup can return.
+     */
+    private static final Class<?> MISSING = Missing.class;
+
+    private static final Map<String, Class<?>> classes = new ConcurrentHashMap<>();
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private ClassLookup() {}
+
+    /**
+     * Load a class first with the default class loader and then with the class loader that
+     * includes the jar files of the application under test.
+     * @param className the fully qualified name of the class
+     * @return the class
+     * @throws ClassNotFoundException if the class cannot be loaded by either class loader. The
+     *      exception does not carry a stack trace.
+     */
+    public static Class<?> loadClass(String className) throws ClassNotFoundException {
+        Class<?> cls = lookup(className);
+        if (cls == MISSING) {
+            throw new MissingClassException(className);
+        }
+        return cls;
+    }
+
+    /**
+     * Load a class without throwing an exception if it cannot be found.
+     * @param className the fully qualified name of the class
+     * @return the class if it could be loaded, otherwise empty
+     */
+    public static Optional<Class<?>> findClass(String className) {
+        Class<?> cls = lookup(className);
+        return cls == MISSING ? Optional.empty() : Optional.of(cls);
+    }
+
+    private static Class<?> lookup(String className) {
+        Class<?> cls = classes.get(className);
+        if (cls != null) {
+            hits.increment();
+            return cls;
+        }
+        misses.increment();
+        cls = load(className);
+        if (classes.size() >= MAX_ENTRIES) {
+            classes.clear();
+        }
+        classes.put(className, cls);
+        return cls;
+    }
+
+    private static Class<?> load(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException | NoClassDefFoundError e) {
+            if (AbstractCompiler.loader != null) {
+                try {
+                    return AbstractCompiler.loader.loadClass(className);
+                } catch (ClassNotFoundException | NoClassDefFoundError ex) {
+                    return MISSING;
+                }
+            }
+            return MISSING;
+        }
+    }
+
+    /**
+     * Forget everything, to be called when the class loader changes.
+     */
+    public static void reset() {
+        classes.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Thrown for names that are known to be missing. Filling in the stack trace would defeat the
+     * purpose of the cache.
+     */
+    private static class MissingClassException extends ClassNotFoundException {
+        MissingClassException(String className) {
+            super(className);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private static final class Missing {
+    }
+}
@@ -0,0 +1,37 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+
+/**
+ * Reports on the heap and the garbage collector so that the effect of the lean_parse and
+ * evict_sources settings can be measured.
+ */
+public class HeapMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(HeapMetrics.class);
+    private static final long MB = 1024 * 1024L;
+
+    private HeapMetrics() {}
+
+    /**
+     * Log the heap usage along with the number of collections and the time spent in them.
+     * @param stage describes the point at which the measurement is taken
+     */
+    public static void log(String stage) {
+        if (logger.isInfoEnabled()) {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            long collections = 0;
+            long time = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                collections += Math.max(gc.getCollectionCount(), 0);
+                time += Math.max(gc.getCollectionTime(), 0);
+            }
+            logger.info("{}: heap used {} MB, committed {} MB, max {} MB; {} collections in {} ms",
+                    stage, heap.getUsed() / MB, heap.getCommitted() / MB, heap.getMax() / MB, collections, time);
+        }
+    }
+}
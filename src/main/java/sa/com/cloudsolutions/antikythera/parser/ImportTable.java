@@ -0,0 +1,134 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.ImportDeclaration;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>The imports of a compilation unit arranged for lookup by name.</p>
+ *
+ * The table is built the first time that an import is looked up in a compilation unit and is
+ * attached to it. Single type imports and static imports are keyed by both their fully qualified
+ * name and their last component. Wildcard imports are expanded with the help of the
+ * {@link TypeIndex} into the classes that they make visible. The extra_exports from the settings
+ * are included as well, keyed by the full name and every dotted suffix of it so that a qualified
+ * name such as Outer.Inner finds them just like the simple name does.
+ *
+ * The import wrappers are resolved only when they are asked for and then remembered, including the
+ * fact that there isn't an import for a name. The table is rebuilt when a {@link ResolutionWatch}
+ * says that the names may now resolve differently.
+ */
+class ImportTable {
+    private static final DataKey<ImportTable> KEY = new DataKey<>() {};
+    /**
+     * Marker for names that do not have an import, the concurrent map does not accept nulls.
+     */
+    private static final ImportWrapper NOT_FOUND = new ImportWrapper(new ImportDeclaration("none", false, false), true);
+
+    private final ResolutionWatch watch;
+
+    /**
+     * Single type and static imports keyed by the fully qualified name and by the last component.
+     * The first import for a name wins.
+     */
+    private final Map<String, ImportDeclaration> named = new HashMap<>();
+    /**
+     * Simple class names mapped to the wildcard import that makes them visible
+     */
+    private final Map<String, ImportDeclaration> expanded = new HashMap<>();
+    private final List<ImportDeclaration> wildcards;
+    private final Map<String, String> extraExports = new HashMap<>();
+    private final Map<String, ImportWrapper> resolved = new ConcurrentHashMap<>();
+
+    private ImportTable(CompilationUnit cu) {
+        this.watch = new ResolutionWatch(cu);
+
+        for (ImportDeclaration imp : cu.getImports()) {
+            if (imp.isAsterisk()) {
+                if (!imp.isStatic()) {
+                    for (String type : TypeIndex.getTypes(imp.getNameAsString())) {
+                        expanded.putIfAbsent(type, imp);
+                    }
+                }
+            } else {
+                named.putIfAbsent(imp.getNameAsString(), imp);
+                named.putIfAbsent(imp.getName().getIdentifier(), imp);
+            }
+        }
+        wildcards = cu.getImports().stream().filter(ImportDeclaration::isAsterisk).toList();
+
+        for (Object e : Settings.getProperty("extra_exports", List.class).orElseGet(List::of)) {
+            String name = e.toString();
+            extraExports.putIfAbsent(name, name);
+            for (int i = name.lastIndexOf('.'); i > 0; i = name.lastIndexOf('.', i - 1)) {
+                extraExports.putIfAbsent(name.substring(i + 1), name);
+            }
+        }
+    }
+
+    /**
+     * Find the import table for a compilation unit creating it if needed.
+     * @param cu the compilation unit
+     * @return the import table, which is valid for as long as the imports and types of the
+     *      compilation unit and the type index remain the same.
+     */
+    static ImportTable of(CompilationUnit cu) {
+        synchronized (cu) {
+            if (cu.containsData(KEY)) {
+                ImportTable table = cu.getData(KEY);
+                if (table.watch.isValid(cu)) {
+                    return table;
+                }
+            }
+            ImportTable table = new ImportTable(cu);
+            cu.setData(KEY, table);
+            return table;
+        }
+    }
+
+    /**
+     * Find the import for the given name, resolving it if this is the first time.
+     * @param className a simple or fully qualified name
+     * @param resolver converts a name to an import wrapper, will only be invoked once for each name.
+     * @return the import wrapper or null if there isn't an import for the name
+     */
+    ImportWrapper get(String className, Function<String, ImportWrapper> resolver) {
+        ImportWrapper wrapper = resolved.get(className);
+        if (wrapper == null) {
+            /*
+             * Not using computeIfAbsent because resolving an import may load other compilation
+             * units and find their imports in turn.
+             */
+            wrapper = Optional.ofNullable(resolver.apply(className)).orElse(NOT_FOUND);
+            ImportWrapper previous = resolved.putIfAbsent(className, wrapper);
+            if (previous != null) {
+                wrapper = previous;
+            }
+        }
+        return wrapper == NOT_FOUND ? null : wrapper;
+    }
+
+    ImportDeclaration getNamedImport(String className) {
+        return named.get(className);
+    }
+
+    ImportDeclaration getExpandedImport(String className) {
+        return expanded.get(className);
+    }
+
+    List<ImportDeclaration> getWildcards() {
+        return wildcards;
+    }
+
+    String getExtraExport(String className) {
+        return extraExports.get(className);
+    }
+}
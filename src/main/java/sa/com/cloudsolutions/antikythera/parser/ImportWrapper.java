@@ -24,7 +24,7 @@ public class ImportWrapper {
 
     public ImportWrapper(ImportDeclaration imp) {
         this.imp = imp;
-        this.isExternal = AntikytheraRunTime.getCompilationUnit(imp.getNameAsString()) == null;
+        this.isExternal = !AntikytheraRunTime.hasClass(imp.getNameAsString());
     }
 
     public ImportDeclaration getImport() {
@@ -35,7 +35,7 @@ public class ImportWrapper {
         return isExternal;
     }
 
-    public void setExternal(boolean isExternal) {
+    void setExternal(boolean isExternal) {
         this.isExternal = isExternal;
     }
 
@@ -43,7 +43,7 @@ public class ImportWrapper {
         return imp.getNameAsString();
     }
 
-    public void setType(TypeDeclaration<?> type) {
+    void setType(TypeDeclaration<?> type) {
         this.type = type;
     }
 
@@ -51,7 +51,7 @@ public class ImportWrapper {
         return type;
     }
 
-    public void setField(FieldDeclaration fieldDeclaration) {
+    void setField(FieldDeclaration fieldDeclaration) {
         this.fieldDeclaration = fieldDeclaration;
     }
 
@@ -64,11 +64,11 @@ public class ImportWrapper {
         return methodDeclaration;
     }
 
-    public void setMethodDeclaration(MethodDeclaration methodDeclaration) {
+    void setMethodDeclaration(MethodDeclaration methodDeclaration) {
         this.methodDeclaration = methodDeclaration;
     }
 
-    public void setSimplified(ImportDeclaration decl) {
+    void setSimplified(ImportDeclaration decl) {
         this.simplified = decl;
     }
 
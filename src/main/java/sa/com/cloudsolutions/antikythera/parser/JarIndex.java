@@ -0,0 +1,153 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * <p>The names of the classes in each jar file, remembered between runs.</p>
+ *
+ * Reading the entries of every dependency each time the parser is set up is a large part of the
+ * startup time. The names of the classes are kept in an index keyed by the path of the jar and
+ * only used while the size and the modification time of the file are unchanged. The Class-Path
+ * attribute of the manifest is kept alongside, so that jars referred to from a manifest only
+ * class path can be found without opening the jar again.
+ *
+ * The index is saved in the folder given by the parse_cache setting. When that is not configured
+ * the index is only kept in memory.
+ */
+public class JarIndex {
+    private static final Logger logger = LoggerFactory.getLogger(JarIndex.class);
+    public static final String INDEX_FILE = "jar-index.json";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static Map<String, Entry> entries;
+    private static volatile boolean modified;
+
+    private JarIndex() {}
+
+    /**
+     * The classes in a jar file.
+     * @param jar the path to the jar file
+     * @return the binary names of the classes, nested classes have a $ in their names
+     */
+    public static List<String> getClasses(Path jar) {
+        return getEntry(jar).classes();
+    }
+
+    /**
+     * The Class-Path attribute from the manifest of a jar file.
+     * @param jar the path to the jar file
+     * @return the URLs listed in the attribute, as they were written, which may be relative to
+     *      the folder that holds the jar. Empty if there is no such attribute.
+     */
+    public static List<String> getClassPath(Path jar) {
+        return getEntry(jar).classPath();
+    }
+
+    private static Entry getEntry(Path jar) {
+        try {
+            String key = jar.toAbsolutePath().normalize().toString();
+            long size = Files.size(jar);
+            long lastModified = Files.getLastModifiedTime(jar).toMillis();
+            Map<String, Entry> index = load();
+            Entry entry = index.get(key);
+            if (entry == null || entry.size() != size || entry.lastModified() != lastModified
+                    || entry.classPath() == null) {
+                entry = readEntry(jar, size, lastModified);
+                index.put(key, entry);
+                modified = true;
+            }
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static synchronized Map<String, Entry> load() throws IOException {
+        if (entries == null) {
+            entries = new ConcurrentHashMap<>();
+            Path file = getIndexFile();
+            if (file != null && file.toFile().exists()) {
+                Snapshot snapshot = new ObjectMapper().readValue(file.toFile(), Snapshot.class);
+                if (snapshot.jars() != null) {
+                    entries.putAll(snapshot.jars());
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static Entry readEntry(Path jar, long size, long lastModified) throws IOException {
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            List<String> classes = jarFile.stream()
+                    .map(JarEntry::getName)
+                    .filter(name -> name.endsWith(CLASS_SUFFIX) && !name.endsWith("module-info.class")
+                            && !name.endsWith("package-info.class"))
+                    .map(name -> name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'))
+                    .toList();
+            Manifest manifest = jarFile.getManifest();
+            String classPath = manifest == null ? null : manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH);
+            return new Entry(size, lastModified, classes,
+                    classPath == null || classPath.isBlank() ? List.of() : List.of(classPath.trim().split("\\s+")));
+        }
+    }
+
+    /**
+     * Write the index to disk if any jars have been read since it was loaded.
+     * @throws IOException if the index cannot be written
+     */
+    public static synchronized void save() throws IOException {
+        Path file = getIndexFile();
+        if (modified && file != null) {
+            Files.createDirectories(file.getParent());
+            new ObjectMapper().writeValue(file.toFile(), new Snapshot(entries));
+            modified = false;
+            logger.debug("Saved the index of {} jar files", entries.size());
+        }
+    }
+
+    private static Path getIndexFile() {
+        Object folder = Settings.getProperty("parse_cache");
+        return folder == null ? null : Paths.get(folder.toString(), INDEX_FILE);
+    }
+
+    /**
+     * Forget the index held in memory. It will be loaded from disk again on next use.
+     */
+    public static synchronized void reset() {
+        entries = null;
+        modified = false;
+    }
+
+    /**
+     * The classes in a single jar file.
+     * @param size the size of the file when it was read
+     * @param lastModified the modification time of the file in milliseconds
+     * @param classes the binary class names
+     * @param classPath the entries of the Class-Path attribute in the manifest, null in indexes
+     *                  saved before the attribute was recorded
+     */
+    public record Entry(long size, long lastModified, List<String> classes, List<String> classPath) {
+    }
+
+    /**
+     * The content of the index file, absolute paths of the jars mapped to their entries.
+     */
+    public record Snapshot(Map<String, Entry> jars) {
+    }
+}
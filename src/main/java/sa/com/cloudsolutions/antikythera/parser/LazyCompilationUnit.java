@@ -0,0 +1,114 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
+
+import java.io.FileNotFoundException;
+import java.lang.ref.SoftReference;
+import java.util.function.Supplier;
+
+/**
+ * Parses a source file the first time that its compilation unit is requested.
+ *
+ * All the types declared in the same file share a single instance so that the file is parsed
+ * only once and every one of them gets the same compilation unit. Once parsed, all the types in
+ * the file including the nested ones are registered with the runtime.
+ *
+ * When the evict_sources setting is true the compilation unit is only softly reachable from here.
+ * The garbage collector may then reclaim it once nothing else refers to any of its nodes, and
+ * the file will be parsed again when it is next needed.
+ */
+public class LazyCompilationUnit implements Supplier<CompilationUnit> {
+    private final String relativePath;
+    private final boolean evictable;
+    private CompilationUnit cu;
+    private SoftReference<CompilationUnit> reference;
+
+    /**
+     * @param relativePath the path of the source file relative to the base path
+     */
+    public LazyCompilationUnit(String relativePath) {
+        this.relativePath = relativePath;
+        this.evictable = isEvictionEnabled();
+    }
+
+    /**
+     * @return true if compilation units that have not been used for a while may be reclaimed
+     */
+    public static boolean isEvictionEnabled() {
+        return Settings.getProperty("evict_sources", Boolean.class).orElse(false);
+    }
+
+    @Override
+    public synchronized CompilationUnit get() {
+        CompilationUnit compilationUnit = peek();
+        if (compilationUnit == null) {
+            try {
+                compilationUnit = AbstractCompiler.parseSource(relativePath);
+            } catch (FileNotFoundException e) {
+                throw new AntikytheraException("Could not load " + relativePath, e);
+            }
+            if (evictable) {
+                reference = new SoftReference<>(compilationUnit);
+                register(compilationUnit);
+            } else {
+                cu = compilationUnit;
+                AbstractCompiler.cache(compilationUnit);
+            }
+        }
+        return compilationUnit;
+    }
+
+    /**
+     * Hand over a compilation unit that has already been parsed
+     * @param compilationUnit the compilation unit for the file
+     */
+    synchronized void seed(CompilationUnit compilationUnit) {
+        if (evictable) {
+            reference = new SoftReference<>(compilationUnit);
+        } else {
+            cu = compilationUnit;
+        }
+    }
+
+    /**
+     * The compilation unit without parsing the file.
+     * @return null if the file has not been parsed or if it has been evicted.
+     */
+    private CompilationUnit peek() {
+        if (cu != null) {
+            return cu;
+        }
+        return reference == null ? null : reference.get();
+    }
+
+    /**
+     * Register all the types in the file, including the ones that had not been seen before
+     * parsing such as nested classes, without making the compilation unit strongly reachable.
+     */
+    private void register(CompilationUnit compilationUnit) {
+        for (TypeDeclaration<?> type : AbstractCompiler.findContainedTypes(compilationUnit)) {
+            type.getFullyQualifiedName().ifPresent(
+                    name -> AntikytheraRunTime.addClass(AntikytheraRunTime.ClassInfo.lazy(name, this, compilationUnit))
+            );
+        }
+    }
+
+    /**
+     * @return true if the compilation unit may be reclaimed by the garbage collector
+     */
+    public boolean isEvictable() {
+        return evictable;
+    }
+
+    public synchronized boolean isLoaded() {
+        return peek() != null;
+    }
+
+    public String getRelativePath() {
+        return relativePath;
+    }
+}
@@ -0,0 +1,87 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A type solver for a jar file that is only opened when one of its classes is requested.
+ *
+ * The names of the classes come from the {@link JarIndex}. Requests for any other name are
+ * answered straight away without creating the underlying {@link JarTypeSolver}.
+ */
+public class LazyJarTypeSolver implements TypeSolver {
+    private final Path jar;
+    private final Set<String> knownClasses = new HashSet<>();
+    private TypeSolver parent;
+    private JarTypeSolver solver;
+
+    public LazyJarTypeSolver(Path jar) {
+        this.jar = jar;
+        for (String name : JarIndex.getClasses(jar)) {
+            knownClasses.add(name);
+            /*
+             * The symbol solver uses the canonical name for nested classes
+             */
+            if (name.indexOf('$') != -1) {
+                knownClasses.add(name.replace('$', '.'));
+            }
+        }
+    }
+
+    /**
+     * The names of the classes in the jar, both binary and canonical names for nested classes.
+     */
+    public Set<String> getKnownClasses() {
+        return knownClasses;
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public synchronized void setParent(TypeSolver parent) {
+        this.parent = parent;
+        if (solver != null) {
+            solver.setParent(parent);
+        }
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        if (!knownClasses.contains(name)) {
+            return SymbolReference.unsolved();
+        }
+        return getSolver().tryToSolveType(name);
+    }
+
+    /**
+     * @return true if the jar file has been opened
+     */
+    public synchronized boolean isLoaded() {
+        return solver != null;
+    }
+
+    private synchronized JarTypeSolver getSolver() {
+        if (solver == null) {
+            try {
+                solver = new JarTypeSolver(jar);
+            } catch (IOException e) {
+                throw new AntikytheraException("Could not read " + jar, e);
+            }
+            if (parent != null) {
+                solver.setParent(parent);
+            }
+        }
+        return solver;
+    }
+}
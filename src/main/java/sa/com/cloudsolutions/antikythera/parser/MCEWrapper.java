@@ -73,6 +73,27 @@ public class MCEWrapper {
         this.methodCallExpr = methodCallExpr;
     }
 
+    /**
+     * Identifies the method and the types of the arguments.
+     * Two calls with the same signature will be resolved to the same callable in a given type.
+     * @return the name of the method, the number of arguments and the argument types
+     */
+    public String getSignature() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(getMethodName()).append('/');
+        if (methodCallExpr != null) {
+            sb.append(methodCallExpr.getArguments().size());
+        }
+        if (argumentTypes != null) {
+            sb.append('(');
+            for (Type t : argumentTypes) {
+                sb.append(t).append(',');
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
     @Override
     public String toString() {
         if (methodCallExpr != null) {
@@ -0,0 +1,152 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.DataKey;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * <p>The methods and constructors of a type arranged for overload resolution.</p>
+ *
+ * Callables are grouped by name and then by the number of arguments that they can accept, with
+ * variable arity methods included in each group that they can satisfy. The types that are
+ * extended are resolved once so that inherited members can be searched without finding the fully
+ * qualified names over and over again.
+ *
+ * The outcome of resolving a call is remembered against the signature of the call, which is made
+ * up of the method name and the types of the arguments. The index is attached to the type
+ * declaration and rebuilt if members are added or removed.
+ */
+class MethodIndex {
+    private static final DataKey<MethodIndex> KEY = new DataKey<>() {};
+    private static final String CONSTRUCTOR = "<init>";
+
+    private final int members;
+    private final Map<String, List<CallableDeclaration<?>>> byName = new HashMap<>();
+    private final Map<String, List<CallableDeclaration<?>>> byArity = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Callable>> resolved = new ConcurrentHashMap<>();
+    private final TypeDeclaration<?> decl;
+    private List<Parent> parents;
+
+    /**
+     * A type that is extended. Either a declaration from the application under test or a class
+     * that has been loaded. When neither could be found the search for inherited members ends.
+     */
+    record Parent(TypeDeclaration<?> type, Class<?> cls) {
+    }
+
+    private MethodIndex(TypeDeclaration<?> decl) {
+        this.decl = decl;
+        this.members = decl.getMembers().size();
+        for (MethodDeclaration md : decl.getMethods()) {
+            byName.computeIfAbsent(md.getNameAsString(), k -> new ArrayList<>()).add(md);
+        }
+        for (ConstructorDeclaration cd : decl.getConstructors()) {
+            byName.computeIfAbsent(CONSTRUCTOR, k -> new ArrayList<>()).add(cd);
+        }
+    }
+
+    /**
+     * Find the method index for a type creating it if needed.
+     * @param decl the type declaration
+     * @return the index, which is valid for as long as the members of the type remain the same.
+     */
+    static MethodIndex of(TypeDeclaration<?> decl) {
+        synchronized (decl) {
+            if (decl.containsData(KEY)) {
+                MethodIndex index = decl.getData(KEY);
+                if (index.members == decl.getMembers().size()) {
+                    return index;
+                }
+            }
+            MethodIndex index = new MethodIndex(decl);
+            decl.setData(KEY, index);
+            return index;
+        }
+    }
+
+    /**
+     * All the methods with the given name, in the order of declaration.
+     * @param name the name of the method or null for the constructors
+     */
+    List<CallableDeclaration<?>> getCallables(String name) {
+        return byName.getOrDefault(name == null ? CONSTRUCTOR : name, List.of());
+    }
+
+    /**
+     * The callables with the given name that can accept the given number of arguments.
+     * @param name the name of the method or null for the constructors
+     * @param arity the number of arguments
+     */
+    List<CallableDeclaration<?>> getCandidates(String name, int arity) {
+        String key = (name == null ? CONSTRUCTOR : name) + "/" + arity;
+        return byArity.computeIfAbsent(key, k -> getCallables(name).stream().filter(c ->
+                c.getParameters().size() == arity ||
+                        (c.getParameters().size() > arity && c.getParameter(arity).isVarArgs())
+        ).toList());
+    }
+
+    /**
+     * The types that this type extends, resolved the first time that it's needed.
+     */
+    synchronized List<Parent> getParents() {
+        if (parents == null) {
+            List<Parent> list = new ArrayList<>();
+            Optional<CompilationUnit> compilationUnit = decl.findCompilationUnit();
+            if (decl instanceof ClassOrInterfaceDeclaration cdecl && compilationUnit.isPresent()) {
+                for (ClassOrInterfaceType extended : cdecl.getExtendedTypes()) {
+                    String fullName = AbstractCompiler.findFullyQualifiedName(compilationUnit.get(), extended.getNameAsString());
+                    CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(fullName);
+                    if (cu != null) {
+                        list.add(new Parent(AbstractCompiler.getMatchingType(cu, extended.getNameAsString()), null));
+                    } else {
+                        ImportWrapper wrapper = AbstractCompiler.findImport(compilationUnit.get(), extended.getNameAsString());
+                        if (wrapper != null && wrapper.isExternal()) {
+                            Optional<Class<?>> cls = ClassLookup.findClass(wrapper.getNameAsString());
+                            list.add(new Parent(null, cls.orElse(null)));
+                            if (cls.isEmpty()) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+            parents = list;
+        }
+        return parents;
+    }
+
+    /**
+     * Find the callable for a call, resolving it if this is the first call with that signature.
+     * @param signature identifies the method and the argument types
+     * @param resolver will be invoked if the signature has not been seen before.
+     * @return the outcome of resolving the call.
+     */
+    Optional<Callable> resolve(String signature, Supplier<Optional<Callable>> resolver) {
+        Optional<Callable> callable = resolved.get(signature);
+        if (callable == null) {
+            /*
+             * Resolving a call may need the index of a parent class, which may be this one.
+             */
+            callable = resolver.get();
+            Optional<Callable> previous = resolved.putIfAbsent(signature, callable);
+            if (previous != null) {
+                callable = previous;
+            }
+        }
+        return callable;
+    }
+}
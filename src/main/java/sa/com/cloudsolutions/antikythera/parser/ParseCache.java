@@ -0,0 +1,236 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.depsolver.InterfaceSolver;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Persists the outcome of pre-processing between runs.</p>
+ *
+ * For each source file we remember the classes that it declares, the facts that
+ * {@link AntikytheraRunTime.ClassInfo} holds about them and the interface and subclass relations
+ * discovered by the {@link InterfaceSolver}. Entries are keyed by the path of the file relative
+ * to the base path and are only used when the SHA-256 hash of the file content is unchanged.
+ *
+ * The relations of a class may depend on other types, for example the parents of an interface
+ * that it implements. So an entry is also discarded when any of the types that it depends on
+ * has been added, changed or removed. Parents and interfaces that could not be resolved are
+ * remembered by the name used in the source, and the entry is discarded as soon as a class with
+ * a matching name is added.
+ *
+ * The cache is enabled by setting parse_cache in the configuration to a folder where the cache
+ * file can be written.
+ */
+public class ParseCache {
+    private static final Logger logger = LoggerFactory.getLogger(ParseCache.class);
+    public static final String CACHE_FILE = "parse-cache.json";
+
+    private final Path cacheFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+    private ParseCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Open the parse cache as specified in the configuration
+     * @return a ParseCache instance. If the cache has not been configured the instance will not
+     *      restore or save anything.
+     * @throws IOException if the cache file exists but cannot be read.
+     */
+    public static ParseCache open() throws IOException {
+        Object folder = Settings.getProperty("parse_cache");
+        if (folder == null) {
+            return new ParseCache(null);
+        }
+        ParseCache parseCache = new ParseCache(Paths.get(folder.toString(), CACHE_FILE));
+        File f = parseCache.cacheFile.toFile();
+        if (f.exists()) {
+            Snapshot snapshot = new ObjectMapper().readValue(f, Snapshot.class);
+            if (Settings.getBasePath().equals(snapshot.basePath()) && snapshot.entries() != null) {
+                parseCache.entries.putAll(snapshot.entries());
+            }
+        }
+        return parseCache;
+    }
+
+    public boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    /**
+     * Restore the classes and relations for all the files that have not changed.
+     *
+     * @param sources the paths of all the source files relative to the base path.
+     * @return the paths of the files that need to be processed, because they are either new or
+     *      have been modified or depend on something that has been modified.
+     * @throws IOException if a source file cannot be read
+     */
+    public List<String> restore(List<String> sources) throws IOException {
+        if (!isEnabled()) {
+            return sources;
+        }
+
+        Set<String> changed = new HashSet<>();
+        List<String> stale = new ArrayList<>();
+        Map<String, Entry> current = new HashMap<>();
+        for (String source : sources) {
+            String hash = hash(Paths.get(Settings.getBasePath(), source));
+            hashes.put(source, hash);
+            Entry entry = entries.get(source);
+            if (entry != null && entry.hash().equals(hash)) {
+                current.put(source, entry);
+            }
+            else {
+                stale.add(source);
+                changed.add(AbstractCompiler.pathToClass(source));
+                if (entry != null) {
+                    changed.addAll(entry.classes());
+                }
+            }
+        }
+
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (!hashes.containsKey(entry.getKey())) {
+                changed.addAll(entry.getValue().classes());
+            }
+        }
+        entries.keySet().retainAll(current.keySet());
+
+        for (Map.Entry<String, Entry> e : current.entrySet()) {
+            Entry entry = e.getValue();
+            if (entry.dependencies().stream().anyMatch(changed::contains) || isResolvable(entry, changed)) {
+                stale.add(e.getKey());
+                entries.remove(e.getKey());
+            }
+            else {
+                register(e.getKey(), entry);
+            }
+        }
+
+        logger.info("Parse cache: {} files restored, {} files to process", entries.size(), stale.size());
+        return stale;
+    }
+
+    /**
+     * Could any of the names that did not resolve when the entry was made be resolved now?
+     * @param entry the entry for a file that has not changed
+     * @param changed the classes that have been added, modified or removed
+     * @return true if one of the changed classes has a name that matches an unresolved name
+     */
+    private static boolean isResolvable(Entry entry, Set<String> changed) {
+        if (entry.unresolved() == null || entry.unresolved().isEmpty()) {
+            return false;
+        }
+        for (String name : entry.unresolved()) {
+            for (String cls : changed) {
+                if (cls.equals(name) || cls.endsWith("." + name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void register(String source, Entry entry) {
+        LazyCompilationUnit lazy = new LazyCompilationUnit(source);
+        for (String cls : entry.classes()) {
+            if (!AntikytheraRunTime.hasClass(cls)) {
+                AntikytheraRunTime.addClass(AntikytheraRunTime.ClassInfo.lazy(cls, lazy).withFlags(
+                        entry.service(), entry.controller(), entry.component(), entry.interfaceType()));
+            }
+        }
+        entry.implementations().forEach((iface, impls) ->
+                impls.forEach(impl -> AntikytheraRunTime.addImplementation(iface, impl)));
+        entry.extensions().forEach((parent, children) ->
+                children.forEach(child -> AntikytheraRunTime.addSubClass(parent, child)));
+    }
+
+    /**
+     * Record the outcome of processing a source file.
+     * @param source the path of the file relative to the base path
+     * @param solver the interface solver that was used to process the file
+     */
+    public void update(String source, InterfaceSolver solver) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        List<String> classes = new ArrayList<>();
+        for (TypeDeclaration<?> type : AbstractCompiler.findContainedTypes(solver.getCompilationUnit())) {
+            type.getFullyQualifiedName().ifPresent(classes::add);
+        }
+
+        AntikytheraRunTime.ClassInfo info = classes.isEmpty() ? null : AntikytheraRunTime.getClassInfo(classes.get(0));
+        entries.put(source, new Entry(hashes.get(source), classes,
+                info != null && info.isServiceClass(),
+                info != null && info.isControllerClass(),
+                info != null && info.isComponentClass(),
+                info != null && info.isInterface(),
+                solver.getImplementations(), solver.getSubClasses(), solver.getDependencies(),
+                solver.getUnresolved()));
+    }
+
+    /**
+     * Write the cache to disk.
+     * @throws IOException if the cache file could not be written
+     */
+    public void save() throws IOException {
+        if (isEnabled()) {
+            Files.createDirectories(cacheFile.getParent());
+            new ObjectMapper().writeValue(cacheFile.toFile(), new Snapshot(Settings.getBasePath(), entries));
+        }
+    }
+
+    /**
+     * Calculate the SHA-256 hash of a file.
+     * @param path the file
+     * @return the hash as a hex string
+     * @throws IOException if the file cannot be read
+     */
+    public static String hash(Path path) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(path)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AntikytheraException(e);
+        }
+    }
+
+    /**
+     * What we know about a single source file.
+     */
+    public record Entry(String hash, List<String> classes, boolean service, boolean controller,
+                        boolean component, boolean interfaceType,
+                        Map<String, Set<String>> implementations, Map<String, Set<String>> extensions,
+                        Set<String> dependencies, Set<String> unresolved) {
+    }
+
+    /**
+     * The content of the cache file.
+     */
+    public record Snapshot(String basePath, Map<String, Entry> entries) {
+    }
+}
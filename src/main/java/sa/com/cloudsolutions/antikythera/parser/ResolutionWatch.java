@@ -0,0 +1,78 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.observer.AstObserverAdapter;
+import com.github.javaparser.ast.observer.ObservableProperty;
+
+/**
+ * <p>Tells whether names resolved earlier in a compilation unit may now resolve differently.</p>
+ *
+ * Anything that is derived from the imports and the types of a compilation unit, and remembered
+ * with it, has to be thrown away when the {@link TypeIndex} is reset, because names that could
+ * not be found before may be found with a different class path. It also has to be thrown away
+ * if imports are added, removed or changed, or if types are added to or removed from any type
+ * in the compilation unit. Those changes are observed as they happen.
+ */
+class ResolutionWatch extends AstObserverAdapter {
+    private final NodeList<ImportDeclaration> imports;
+    private final NodeList<TypeDeclaration<?>> types;
+    private final int generation;
+    private volatile boolean stale;
+
+    ResolutionWatch(CompilationUnit cu) {
+        this.imports = cu.getImports();
+        this.types = cu.getTypes();
+        this.generation = TypeIndex.getGeneration();
+        imports.register(this);
+        for (ImportDeclaration imp : imports) {
+            imp.register(this);
+        }
+        watch(types);
+    }
+
+    private void watch(NodeList<? extends BodyDeclaration<?>> members) {
+        members.register(this);
+        for (BodyDeclaration<?> member : members) {
+            if (member instanceof TypeDeclaration<?> type) {
+                watch(type.getMembers());
+            }
+        }
+    }
+
+    /**
+     * @param cu the compilation unit that this watch was created for
+     * @return true if nothing that affects name resolution has changed
+     */
+    boolean isValid(CompilationUnit cu) {
+        return !stale && generation == TypeIndex.getGeneration()
+                && imports == cu.getImports() && types == cu.getTypes();
+    }
+
+    /**
+     * Only the imports themselves are observed for changes to their properties.
+     */
+    @Override
+    public void propertyChange(Node observedNode, ObservableProperty property, Object oldValue, Object newValue) {
+        stale = true;
+    }
+
+    @Override
+    public void listChange(NodeList<?> observedNode, ListChangeType type, int index, Node nodeAddedOrRemoved) {
+        if (nodeAddedOrRemoved instanceof ImportDeclaration || nodeAddedOrRemoved instanceof TypeDeclaration) {
+            stale = true;
+        }
+    }
+
+    @Override
+    public void listReplacement(NodeList<?> observedNode, int index, Node oldNode, Node newNode) {
+        if (newNode instanceof ImportDeclaration || newNode instanceof TypeDeclaration
+                || oldNode instanceof TypeDeclaration) {
+            stale = true;
+        }
+    }
+}
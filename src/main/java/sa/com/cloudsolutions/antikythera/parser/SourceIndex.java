@@ -0,0 +1,157 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Registers classes from the file system without parsing them.</p>
+ *
+ * The fully qualified name of the public type in a file is worked out from the package
+ * declaration and the name of the file. Any other top level types declared in the same file are
+ * found by looking for type declarations outside of all braces, ignoring comments and string
+ * literals. The compilation unit will be parsed the first time that it is requested from the
+ * {@link AntikytheraRunTime}. Nested types become known at that point.
+ *
+ * Files that extend or implement other types cannot be handled this way because the
+ * relationships are needed up front for autowiring. Those still have to be parsed during
+ * pre-processing but can be unloaded afterwards.
+ */
+public class SourceIndex {
+    private static final Pattern RELATION = Pattern.compile("\\b(extends|implements)\\b");
+    private static final String PACKAGE = "package ";
+    /**
+     * Comments, text blocks, string literals and character literals.
+     */
+    private static final Pattern NOISE = Pattern.compile(
+            "\"\"\"[\\s\\S]*?\"\"\"|\"(?:\\\\.|[^\"\\\\\n])*\"|'(?:\\\\.|[^'\\\\\n])*'|/\\*[\\s\\S]*?\\*/|//[^\n]*");
+    private static final Pattern TYPE = Pattern.compile("\\b(?:class|interface|enum|record)\\s+([A-Za-z_$][\\w$]*)");
+
+    private SourceIndex() {}
+
+    /**
+     * Register the sources that can be loaded on demand.
+     * @param sources paths of the source files relative to the base path
+     * @return the paths of the files that need to be parsed now to discover the relationships
+     * @throws IOException if a source file cannot be read
+     */
+    public static List<String> register(List<String> sources) throws IOException {
+        List<String> remaining = new ArrayList<>();
+        for (String source : sources) {
+            String content = Files.readString(Paths.get(Settings.getBasePath(), source));
+            if (RELATION.matcher(content).find()) {
+                remaining.add(source);
+            }
+            else {
+                String fileName = Paths.get(source).getFileName().toString().replace(AbstractCompiler.SUFFIX, "");
+                String packageName = findPackageName(content);
+                LazyCompilationUnit lazy = new LazyCompilationUnit(source);
+                Set<String> names = new LinkedHashSet<>();
+                names.add(fileName);
+                names.addAll(findTopLevelTypes(content));
+                for (String name : names) {
+                    String fqn = packageName.isEmpty() ? name : packageName + "." + name;
+                    if (!AntikytheraRunTime.hasClass(fqn)) {
+                        AntikytheraRunTime.addClass(AntikytheraRunTime.ClassInfo.lazy(fqn, lazy));
+                    }
+                }
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Replace the compilation units of the given files with ones that will be parsed on demand.
+     * When eviction is enabled the compilation units that have already been parsed are kept for
+     * as long as the garbage collector allows.
+     * @param sources paths of the source files relative to the base path
+     */
+    public static void unload(List<String> sources) {
+        for (String source : sources) {
+            CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(AbstractCompiler.pathToClass(source));
+            if (cu != null) {
+                LazyCompilationUnit lazy = new LazyCompilationUnit(source);
+                if (lazy.isEvictable()) {
+                    lazy.seed(cu);
+                }
+                for (TypeDeclaration<?> type : AbstractCompiler.findContainedTypes(cu)) {
+                    type.getFullyQualifiedName().ifPresent(name -> {
+                        AntikytheraRunTime.ClassInfo info = AntikytheraRunTime.getClassInfo(name);
+                        AntikytheraRunTime.addClass(AntikytheraRunTime.ClassInfo.lazy(name, lazy).withFlags(
+                                info.isServiceClass(), info.isControllerClass(), info.isComponentClass(),
+                                info.isInterface()));
+                    });
+                }
+            }
+        }
+    }
+
+    /**
+     * Find the names of the types declared at the top level of a source file without parsing it.
+     * @param content the source code
+     * @return the simple names of the top level types in the order that they are declared
+     */
+    static List<String> findTopLevelTypes(String content) {
+        String code = NOISE.matcher(content).replaceAll(" ");
+        List<String> types = new ArrayList<>();
+        Matcher m = TYPE.matcher(code);
+        int depth = 0;
+        int position = 0;
+        while (m.find()) {
+            for (int i = position; i < m.start(); i++) {
+                char c = code.charAt(i);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+            }
+            position = m.start();
+            if (depth == 0) {
+                types.add(m.group(1));
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Find the package name by looking for the package declaration without parsing the file.
+     * @param content the source code
+     * @return the package name or an empty string for the default package
+     */
+    static String findPackageName(String content) {
+        boolean comment = false;
+        for (String line : content.lines().toList()) {
+            line = line.strip();
+            if (comment) {
+                int end = line.indexOf("*/");
+                if (end == -1) {
+                    continue;
+                }
+                comment = false;
+                line = line.substring(end + 2).strip();
+            }
+            if (line.startsWith("/*")) {
+                comment = !line.contains("*/");
+            }
+            else if (line.startsWith(PACKAGE)) {
+                return line.substring(PACKAGE.length(), line.indexOf(';')).strip();
+            }
+            else if (!(line.isEmpty() || line.startsWith("//") || line.startsWith("@"))) {
+                return "";
+            }
+        }
+        return "";
+    }
+}
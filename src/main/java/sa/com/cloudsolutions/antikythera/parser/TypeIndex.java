@@ -0,0 +1,311 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * <p>Answers the question 'does this package contain a type with this name' without loading
+ * classes or probing the file system.</p>
+ *
+ * There are two separate indexes. The first covers the source code of the application under
+ * test and is built from the names of the files in the base folder. The second covers
+ * everything that can be loaded as a class: the JDK and the jars and folders that are visible
+ * to the class loader used by the {@link AbstractCompiler}. That index is built one package at a
+ * time, as packages are asked for. The jars that hold a package are found through the
+ * {@link JarIndex}, so the class loader is never asked to search them and a jar whose entries are
+ * already in the index is not opened at all. The Class-Path attributes in the manifests of the
+ * jars are followed, so a manifest only class path is indexed as well.
+ *
+ * A class that is not in the index is looked up through {@link ClassLookup} before it is
+ * reported as missing, in case it is visible to a class loader in a way that cannot be listed.
+ */
+public class TypeIndex {
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Package names mapped to the simple names of the classes that can be loaded from it.
+     */
+    private static final Map<String, Set<String>> packages = new ConcurrentHashMap<>();
+    /**
+     * For each jar file, the package names mapped to the simple names of the classes.
+     */
+    private static final Map<String, Map<String, Set<String>>> jars = new ConcurrentHashMap<>();
+    /**
+     * Package names mapped to the simple names of the top level types in the source code.
+     */
+    private static Map<String, Set<String>> sources;
+    private static String sourceBase;
+    private static FileSystem jrt;
+    private static ClassPath classPath;
+    private static volatile int generation;
+
+    private TypeIndex() {}
+
+    /**
+     * Forget everything. Should be called whenever the class loader changes.
+     */
+    public static synchronized void reset() {
+        packages.clear();
+        jars.clear();
+        sources = null;
+        classPath = null;
+        generation++;
+    }
+
+    /**
+     * @return a number that changes whenever the index is reset. Anything derived from the index
+     *      should be thrown away when this number changes.
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks if a class can be loaded.
+     * @param packageName the package
+     * @param simpleName the simple name of the class
+     * @return true if the class exists in the JDK or on the class path
+     */
+    public static boolean contains(String packageName, String simpleName) {
+        if (getTypes(packageName).contains(simpleName)) {
+            return true;
+        }
+        /*
+         * The index can only be as complete as the class path that it could discover. Anything
+         * else that the class loaders can find still counts.
+         */
+        return simpleName.indexOf('$') == -1
+                && ClassLookup.findClass(packageName.isEmpty() ? simpleName : packageName + "." + simpleName).isPresent();
+    }
+
+    /**
+     * Checks if a class can be loaded.
+     * @param className a fully qualified class name
+     * @return true if the class exists in the JDK or on the class path
+     */
+    public static boolean contains(String className) {
+        int dot = className.lastIndexOf('.');
+        return dot == -1 ? contains("", className) : contains(className.substring(0, dot), className.substring(dot + 1));
+    }
+
+    /**
+     * Checks if there is a source file for the given type in the application under test.
+     * @param packageName the package
+     * @param simpleName the simple name of the class
+     * @return true if the file packageName/simpleName.java exists in the base folder
+     */
+    public static boolean isSourceType(String packageName, String simpleName) {
+        return getSourceTypes().getOrDefault(packageName, Set.of()).contains(simpleName);
+    }
+
+    /**
+     * All the classes in the given package that can be loaded.
+     * @param packageName the name of the package
+     * @return a set of simple class names. Nested classes are not included.
+     */
+    public static Set<String> getTypes(String packageName) {
+        return packages.computeIfAbsent(packageName, TypeIndex::scan);
+    }
+
+    private static synchronized Map<String, Set<String>> getSourceTypes() {
+        String basePath = Settings.getBasePath();
+        if (sources == null || !basePath.equals(sourceBase)) {
+            Map<String, Set<String>> types = new HashMap<>();
+            try {
+                for (String source : AbstractCompiler.findSources()) {
+                    String name = AbstractCompiler.pathToClass(source.replace(File.separatorChar, '/'));
+                    int dot = name.lastIndexOf('.');
+                    String pkg = dot == -1 ? "" : name.substring(0, dot);
+                    types.computeIfAbsent(pkg, k -> new HashSet<>()).add(name.substring(dot + 1));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            sources = types;
+            sourceBase = basePath;
+        }
+        return sources;
+    }
+
+    private static Set<String> scan(String packageName) {
+        Set<String> types = new HashSet<>();
+        try {
+            scanJdk(packageName, types);
+            scanClassPath(packageName, types);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return types;
+    }
+
+    private static void scanJdk(String packageName, Set<String> types) throws IOException {
+        if (jrt == null) {
+            jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        }
+        Path modules = jrt.getPath("/packages", packageName);
+        if (packageName.isEmpty() || !Files.isDirectory(modules)) {
+            return;
+        }
+        try (Stream<Path> links = Files.list(modules)) {
+            for (Path module : links.toList()) {
+                Path folder = jrt.getPath("/modules", module.getFileName().toString(), packageName.replace('.', '/'));
+                addClasses(folder, types);
+            }
+        }
+    }
+
+    private static void scanClassPath(String packageName, Set<String> types) throws IOException {
+        ClassPath classPath = getClassPath();
+        for (Path jar : classPath.jars().getOrDefault(packageName, List.of())) {
+            types.addAll(indexJar(jar).getOrDefault(packageName, Set.of()));
+        }
+        for (Path folder : classPath.folders()) {
+            addClasses(folder.resolve(packageName.replace('.', File.separatorChar)), types);
+        }
+    }
+
+    /**
+     * The entries on the class path, with the jars arranged by the packages that they contain
+     * according to the {@link JarIndex}. A package lookup then only involves the jars that hold it.
+     */
+    private static synchronized ClassPath getClassPath() {
+        if (classPath == null) {
+            Map<String, List<Path>> byPackage = new HashMap<>();
+            List<Path> folders = new ArrayList<>();
+            for (Path entry : findClassPathEntries()) {
+                if (Files.isDirectory(entry)) {
+                    folders.add(entry);
+                } else if (Files.isRegularFile(entry)) {
+                    for (String pkg : indexJar(entry).keySet()) {
+                        byPackage.computeIfAbsent(pkg, k -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }
+            classPath = new ClassPath(byPackage, folders);
+        }
+        return classPath;
+    }
+
+    private static Set<Path> findClassPathEntries() {
+        Set<Path> entries = new LinkedHashSet<>();
+        ClassLoader classLoader = AbstractCompiler.loader == null ? TypeIndex.class.getClassLoader() : AbstractCompiler.loader;
+        for (ClassLoader cl = classLoader; cl != null; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader urlClassLoader) {
+                for (URL url : urlClassLoader.getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            entries.add(Paths.get(url.toURI()));
+                        } catch (URISyntaxException e) {
+                            throw new UncheckedIOException(new IOException(e));
+                        }
+                    }
+                }
+            }
+        }
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                entries.add(Paths.get(entry));
+            }
+        }
+
+        /*
+         * A jar may name further jars in the Class-Path attribute of its manifest. That is how
+         * java -jar and the surefire booter put the dependencies on the class path.
+         */
+        Deque<Path> pending = new ArrayDeque<>(entries);
+        while (!pending.isEmpty()) {
+            Path jar = pending.pop();
+            if (Files.isRegularFile(jar)) {
+                for (Path referenced : resolveManifestClassPath(jar)) {
+                    if (entries.add(referenced)) {
+                        pending.push(referenced);
+                    }
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static List<Path> resolveManifestClassPath(Path jar) {
+        List<Path> paths = new ArrayList<>();
+        URI base = jar.toAbsolutePath().getParent().toUri();
+        for (String url : JarIndex.getClassPath(jar)) {
+            try {
+                URI uri = base.resolve(url);
+                if ("file".equals(uri.getScheme())) {
+                    paths.add(Paths.get(uri));
+                }
+            } catch (IllegalArgumentException e) {
+                // not a valid URL, the JVM ignores those as well
+            }
+        }
+        return paths;
+    }
+
+    private static void addClasses(Path folder, Set<String> types) throws IOException {
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> files = Files.list(folder)) {
+                for (Path file : files.toList()) {
+                    addClass(file.getFileName().toString(), types);
+                }
+            }
+        }
+    }
+
+    private static void addClass(String fileName, Set<String> types) {
+        if (fileName.endsWith(CLASS_SUFFIX) && fileName.indexOf('$') == -1
+                && !fileName.equals("module-info.class") && !fileName.equals("package-info.class")) {
+            types.add(fileName.substring(0, fileName.length() - CLASS_SUFFIX.length()));
+        }
+    }
+
+    /**
+     * Index all the classes in a jar file by package.
+     * @param path the location of the jar file
+     * @return a map of package names to simple class names.
+     */
+    static Map<String, Set<String>> indexJar(Path path) {
+        return jars.computeIfAbsent(path.toString(), k -> {
+            Map<String, Set<String>> index = new HashMap<>();
+            for (String name : JarIndex.getClasses(path)) {
+                int dot = name.lastIndexOf('.');
+                if (name.indexOf('$') == -1) {
+                    index.computeIfAbsent(dot == -1 ? "" : name.substring(0, dot), p -> new HashSet<>())
+                            .add(name.substring(dot + 1));
+                }
+            }
+            return index;
+        });
+    }
+
+    /**
+     * The class path of the class loader.
+     * @param jars package names mapped to the jar files that contain classes in them
+     * @param folders the folders that classes are loaded from
+     */
+    private record ClassPath(Map<String, List<Path>> jars, List<Path> folders) {
+    }
+}
@@ -0,0 +1,46 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+public class Conditional {
+    private int calls;
+
+    public void unreachable() {
+        boolean a = true;
+        if (a) {
+            System.out.println("A");
+        }
+        for (int i = 0; i < 0; i++) {
+            if (a) {
+                System.out.println("Never");
+            }
+        }
+    }
+
+    public void duplicates() {
+        boolean a = true;
+        if (a) {
+            System.out.println("A");
+        }
+        if (a) {
+            System.out.println("A");
+        }
+    }
+
+    public void contradiction() {
+        boolean a = true;
+        if (a && !a) {
+            System.out.println("Never");
+        }
+    }
+
+    public void stateful() {
+        calls++;
+        boolean early = calls < 3;
+        if (early) {
+            return;
+        }
+        boolean third = calls == 3;
+        if (third) {
+            System.out.println("Third");
+        }
+    }
+}
@@ -101,4 +101,38 @@ public class Loops {
         List<Integer> numbers = List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
         numbers.forEach(x -> { System.out.println(x); });
     }
+
+    private void constructorLoop() {
+        Counter counter = new Counter(10);
+        System.out.println(counter.total);
+    }
+
+    private void initializerLoop() {
+        Tally tally = new Tally();
+        System.out.println(tally.total);
+    }
+
+    static class Counter {
+        int total;
+
+        Counter(int n) {
+            for (int i = 0; i < n; i++) {
+                System.out.println(i);
+                total += i;
+            }
+        }
+    }
+
+    static class Tally {
+        int total = count();
+
+        static int count() {
+            int t = 0;
+            for (int i = 0; i < 10; i++) {
+                System.out.println(i);
+                t += i;
+            }
+            return t;
+        }
+    }
 }
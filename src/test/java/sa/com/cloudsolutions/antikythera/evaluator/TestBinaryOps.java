@@ -87,4 +87,24 @@ class TestBinaryOps {
             BinaryOps.binaryOps(BinaryExpr.Operator.LESS, expr, expr, text, number)
         );
     }
+
+    @Test
+    void testIntegralArithmeticIsExact() {
+        var expr = new IntegerLiteralExpr();
+        var big = new Variable(9_007_199_254_740_993L);
+        var one = new Variable(1L);
+
+        assertEquals(9_007_199_254_740_994L, BinaryOps.binaryOps(BinaryExpr.Operator.PLUS, expr, expr, big, one).getValue());
+        assertEquals(Long.MIN_VALUE,
+                BinaryOps.binaryOps(BinaryExpr.Operator.PLUS, expr, expr, new Variable(Long.MAX_VALUE), one).getValue());
+        assertEquals(Integer.MIN_VALUE,
+                BinaryOps.binaryOps(BinaryExpr.Operator.PLUS, expr, expr, new Variable(Integer.MAX_VALUE), new Variable(1)).getValue());
+        assertEquals(-2, BinaryOps.binaryOps(BinaryExpr.Operator.REMAINDER, expr, expr, new Variable(-7), new Variable(5)).getValue());
+        assertEquals(2.5, BinaryOps.binaryOps(BinaryExpr.Operator.DIVIDE, expr, expr, new Variable(5), new Variable(2.0)).getValue());
+        assertThrows(ArithmeticException.class,
+                () -> BinaryOps.binaryOps(BinaryExpr.Operator.DIVIDE, expr, expr, new Variable(5), new Variable(0)));
+
+        Variable result = BinaryOps.binaryOps(BinaryExpr.Operator.MULTIPLY, expr, expr, big, one);
+        assertEquals("long", result.getType().asString());
+    }
 }
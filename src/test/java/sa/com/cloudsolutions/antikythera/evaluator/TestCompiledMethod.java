@@ -0,0 +1,114 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.IntegerLiteralExpr;
+import com.github.javaparser.ast.stmt.Statement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+class TestCompiledMethod extends TestHelper {
+    private static final String PACKAGE = "sa.com.cloudsolutions.antikythera.evaluator.";
+
+    private record Outcome(String output, Object value, long statements) {}
+
+    @BeforeAll
+    static void setup() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.preProcess();
+    }
+
+    @AfterEach
+    void interpret() {
+        Settings.setProperty("compile_methods", false);
+    }
+
+    private static MethodDeclaration method(String cls, String name) {
+        CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(cls);
+        return cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(name)).orElseThrow();
+    }
+
+    private Outcome execute(String cls, MethodDeclaration md, boolean compile) throws ReflectiveOperationException {
+        Settings.setProperty("compile_methods", compile);
+        Evaluator eval = new Evaluator(cls);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out));
+
+        ExecutionMonitor.reset();
+        ExecutionMonitor.begin(cls);
+        Variable v;
+        try {
+            v = eval.executeMethod(md);
+        } finally {
+            ExecutionMonitor.end();
+            System.setOut(standardOut);
+        }
+        return new Outcome(out.toString(), v == null ? null : v.getValue(),
+                ExecutionMonitor.getCounters().get(cls).getStatements());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Loops, forLoop", "Loops, forLoopWithBreak", "Loops, whileLoop", "Loops, doWhileLoop",
+            "Loops, forEach", "Loops, forLoopWithReturn", "ReturnValue, printName", "ReturnValue, printNumberField",
+            "ReturnValue, returnConditionally", "ReturnValue, deepReturn", "Arithmetic, additionViaStrings",
+            "Arithmetic, assignments", "Arithmetic, simpleAddition", "Conditional, duplicates"})
+    void testSameAsInterpreter(String simpleName, String name) throws ReflectiveOperationException {
+        String cls = PACKAGE + simpleName;
+        MethodDeclaration md = method(cls, name);
+        Outcome interpreted = execute(cls, md, false);
+
+        assertEquals(interpreted, execute(cls, md, true));
+        assertNotNull(CompiledMethod.step(md.getBody().orElseThrow().getStatement(0)));
+        assertEquals(interpreted, execute(cls, md, true));
+    }
+
+    @Test
+    void testSameCoverageAsInterpreter() throws ReflectiveOperationException {
+        String cls = PACKAGE + "Conditional";
+        MethodDeclaration md = method(cls, "stateful");
+        ExecutionMonitor.Counters[] counters = new ExecutionMonitor.Counters[2];
+        for (int i = 0; i < counters.length; i++) {
+            Settings.setProperty("compile_methods", i == 1);
+            SpringEvaluator eval = new SpringEvaluator(cls);
+            eval.setArgumentGenerator(mock(ArgumentGenerator.class));
+            ExecutionMonitor.reset();
+            eval.visit(md);
+            counters[i] = ExecutionMonitor.getCounters().get(cls + ".stateful()");
+        }
+
+        assertEquals(counters[0].getEvaluations(), counters[1].getEvaluations());
+        assertEquals(counters[0].getStatements(), counters[1].getStatements());
+        assertEquals(counters[0].getBranchesCovered(), counters[1].getBranchesCovered());
+    }
+
+    @Test
+    void testRecompiledAfterChange() throws ReflectiveOperationException {
+        String cls = PACKAGE + "Arithmetic";
+        MethodDeclaration md = method(cls, "simpleAddition").clone();
+        Statement first = md.getBody().orElseThrow().getStatement(0);
+
+        assertEquals("30\n", execute(cls, md, true).output());
+        assertNotNull(CompiledMethod.step(first));
+
+        md.findFirst(IntegerLiteralExpr.class).orElseThrow().setValue("5");
+        assertNull(CompiledMethod.step(first));
+
+        assertEquals("25\n", execute(cls, md, true).output());
+        assertNotNull(CompiledMethod.step(first));
+    }
+}
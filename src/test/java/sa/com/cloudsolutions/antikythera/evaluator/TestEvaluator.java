@@ -28,6 +28,7 @@ import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TestEvaluator extends TestHelper {
@@ -62,6 +63,16 @@ class TestEvaluator extends TestHelper {
         assertEquals("test", result.getValue());
     }
 
+    @Test
+    void evaluateExpressionReusesLiteralValue() throws AntikytheraException, ReflectiveOperationException {
+        Evaluator evaluator = new Evaluator("");
+        Expression expr = new DoubleLiteralExpr("4.2");
+        Object first = evaluator.evaluateExpression(expr).getValue();
+        assertEquals(4.2, first);
+        assertSame(first, evaluator.evaluateExpression(expr).getValue());
+        assertSame(first, new Evaluator("").evaluateExpression(expr).getValue());
+    }
+
     @Test
     void evaluateExpressionReturnsVariableValue() throws AntikytheraException, ReflectiveOperationException {
         Evaluator evaluator = new Evaluator("");
@@ -1,5 +1,6 @@
 package sa.com.cloudsolutions.antikythera.evaluator;
 
+import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,6 +15,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -64,4 +68,35 @@ class TestFields extends TestHelper {
         assertNull(v.getValue());
         assertEquals("false\n", outContent.toString() );
     }
+
+    @Test
+    void testFieldSnapshot() throws IOException {
+        String person = "sa.com.cloudsolutions.antikythera.evaluator.Person";
+        FieldSnapshot.clear();
+        Evaluator first = new Evaluator(person);
+        Evaluator second = new Evaluator(person);
+
+        assertEquals(first.getFields().keySet(), second.getFields().keySet());
+        assertNotSame(first.getFields().get("age"), second.getFields().get("age"));
+
+        first.getFields().get("age").setValue(42);
+        assertEquals(0, second.getFields().get("age").getValue());
+
+        assertTrue(FieldSnapshot.restore(new Evaluator(person), AntikytheraRunTime.getCompilationUnit(person)));
+        CompilationUnit parsedAgain = StaticJavaParser.parse(
+                new File(Settings.getBasePath(), AbstractCompiler.classToPath(person)));
+        assertFalse(FieldSnapshot.restore(new Evaluator(person), parsedAgain));
+    }
+
+    @Test
+    void testNoSnapshotWithSideEffects() {
+        String ticket = "sa.com.cloudsolutions.antikythera.evaluator.Ticket";
+        FieldSnapshot.clear();
+        Evaluator first = new Evaluator(ticket);
+        Evaluator second = new Evaluator(ticket);
+
+        assertEquals(1, first.getFields().get("first").getValue());
+        assertEquals(1, second.getFields().get("first").getValue());
+        assertNotEquals(first.getFields().get("issued").getValue(), second.getFields().get("issued").getValue());
+    }
 }
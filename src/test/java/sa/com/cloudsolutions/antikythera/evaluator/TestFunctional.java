@@ -2,6 +2,7 @@ package sa.com.cloudsolutions.antikythera.evaluator;
 
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.LambdaExpr;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,6 +10,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.evaluator.functional.FPEvaluator;
 import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
 
 import java.io.File;
@@ -16,7 +18,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class TestFunctional extends TestHelper{
 
@@ -65,4 +69,16 @@ class TestFunctional extends TestHelper{
         assertNull(v.getValue());
         assertEquals("{25=A, 30=B}\n", outContent.toString());
     }
+
+    @Test
+    void testLambdaIsSynthesizedOnce() {
+        LambdaExpr lambda = cu.findFirst(LambdaExpr.class).orElseThrow();
+        FPEvaluator<?> first = (FPEvaluator<?>) FPEvaluator.create(lambda, evaluator).getValue();
+        int children = lambda.getParentNode().orElseThrow().getChildNodes().size();
+        FPEvaluator<?> second = (FPEvaluator<?>) FPEvaluator.create(lambda, evaluator).getValue();
+
+        assertNotSame(first, second);
+        assertSame(first.getMethod(), second.getMethod());
+        assertEquals(children, lambda.getParentNode().orElseThrow().getChildNodes().size());
+    }
 }
@@ -1,7 +1,9 @@
 package sa.com.cloudsolutions.antikythera.evaluator;
 
+import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.BlockStmt;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,8 @@ import java.io.PrintStream;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 class TestLocals extends TestHelper {
     private final String SAMPLE_CLASS = "sa.com.cloudsolutions.antikythera.evaluator.Locals";
@@ -42,4 +46,17 @@ class TestLocals extends TestHelper {
         assertEquals("10,20,100\n20,30,200\n", outContent.toString());
     }
 
+    @Test
+    void testIdenticalBlocksAreSeparateScopes() {
+        MethodDeclaration md = StaticJavaParser.parseMethodDeclaration(
+                "void m() { { int a = 1; } { int a = 1; } }");
+        BlockStmt first = md.getBody().orElseThrow().getStatement(0).asBlockStmt();
+        BlockStmt second = md.getBody().orElseThrow().getStatement(1).asBlockStmt();
+        assertEquals(first, second);
+
+        evaluator.setLocal(first.getStatement(0), "a", new Variable(1));
+        assertNotNull(evaluator.getLocal(first.getStatement(0), "a"));
+        assertNull(evaluator.getLocal(second.getStatement(0), "a"));
+    }
+
 }
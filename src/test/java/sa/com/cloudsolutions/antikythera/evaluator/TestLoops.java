@@ -8,14 +8,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
+import sa.com.cloudsolutions.antikythera.exception.ExecutionBudgetException;
 import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class TestLoops extends  TestHelper {
 
@@ -48,4 +51,24 @@ public class TestLoops extends  TestHelper {
         }
         assertEquals("0\n1\n2\n3\n4\n5\n6\n7\n8\n9\n", outContent.toString());
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"forLoop", "whileLoop", "doWhileLoop", "forEachLoop", "constructorLoop", "initializerLoop"})
+    void testLoopBudget(String methodName) {
+        MethodDeclaration method = cu.findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals(methodName)).orElseThrow();
+        Settings.setProperty("execution_budget", Map.of("max_loop_iterations", 3));
+        ExecutionMonitor.reset();
+        ExecutionMonitor.begin(methodName);
+        try {
+            assertThrows(ExecutionBudgetException.class, () -> evaluator.executeMethod(method));
+        } finally {
+            ExecutionMonitor.end();
+            Settings.setProperty("execution_budget", Map.of());
+        }
+        assertEquals("0\n1\n2\n", outContent.toString());
+
+        ExecutionMonitor.Counters counters = ExecutionMonitor.getCounters().get(methodName);
+        assertEquals(1, counters.getAbandoned());
+        assertEquals(4, counters.getLoopIterations());
+    }
 }
@@ -1,12 +1,26 @@
 package sa.com.cloudsolutions.antikythera.evaluator;
 
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 class TestReflect {
 
@@ -39,4 +53,46 @@ class TestReflect {
         assertEquals(expected, result);
     }
 
+    @Test
+    void testFindAccessibleMethodIsRemembered() {
+        ReflectionArguments first = new ReflectionArguments("substring",
+                new Object[]{1, 3}, new Class<?>[]{Integer.class, Integer.class});
+        Method method = Reflect.findAccessibleMethod(String.class, first);
+        assertEquals("substring", method.getName());
+
+        ReflectionArguments second = new ReflectionArguments("substring",
+                new Object[]{2, 4}, new Class<?>[]{Integer.class, Integer.class});
+        assertSame(method, Reflect.findAccessibleMethod(String.class, second));
+        assertArrayEquals(first.getArgumentTypes(), second.getArgumentTypes());
+
+        ReflectionArguments missing = new ReflectionArguments("noSuchMethod",
+                new Object[]{}, new Class<?>[]{});
+        assertNull(Reflect.findAccessibleMethod(String.class, missing));
+        assertNull(Reflect.findAccessibleMethod(String.class, missing));
+    }
+
+    @Test
+    void testFindConstructorIsRemembered() {
+        Constructor<?> constructor = Reflect.findConstructor(StringBuilder.class,
+                new Class<?>[]{String.class}, new Object[]{"a"});
+        assertEquals(1, constructor.getParameterCount());
+        assertSame(constructor, Reflect.findConstructor(StringBuilder.class,
+                new Class<?>[]{String.class}, new Object[]{"b"}));
+
+        assertNull(Reflect.findConstructor(StringBuilder.class, new Class<?>[]{Thread.class}, new Object[]{Thread.currentThread()}));
+        assertEquals(int.class, Reflect.findConstructor(StringBuilder.class, new Class<?>[]{Integer.class}, new Object[]{10}).getParameterTypes()[0]);
+        assertEquals(int.class, Reflect.findConstructor(StringBuilder.class, new Class<?>[]{Integer.class}, new Object[]{20}).getParameterTypes()[0]);
+    }
+
+    @Test
+    void testCacheIsClearedWhenParserIsReset() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        List<Method> methods = ReflectionCache.getMethods(String.class, "length");
+        assertSame(methods, ReflectionCache.getMethods(String.class, "length"));
+
+        AbstractCompiler.reset();
+        List<Method> again = ReflectionCache.getMethods(String.class, "length");
+        assertNotSame(methods, again);
+        assertEquals(methods, again);
+    }
 }
@@ -0,0 +1,40 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TestScopeChain {
+
+    @Test
+    void testChainIsBuiltOnce() {
+        MethodCallExpr mce = StaticJavaParser.parseExpression("person.address.getCity().length()").asMethodCallExpr();
+        ScopeChain chain = ScopeChain.of(mce);
+
+        assertEquals(3, chain.size());
+        assertEquals(ScopeChain.Kind.NAME, chain.getKind(0));
+        assertEquals(ScopeChain.Kind.FIELD, chain.getKind(1));
+        assertEquals("address", chain.getName(1));
+        assertEquals(ScopeChain.Kind.METHOD, chain.getKind(2));
+        assertFalse(chain.isLogger());
+        assertSame(chain, ScopeChain.of(mce));
+
+        mce.setScope(new NameExpr("logger"));
+        ScopeChain replaced = ScopeChain.of(mce);
+        assertNotSame(chain, replaced);
+        assertTrue(replaced.isLogger());
+    }
+
+    @Test
+    void testNoScope() {
+        MethodCallExpr mce = StaticJavaParser.parseExpression("doStuff()").asMethodCallExpr();
+        assertTrue(ScopeChain.of(mce).isEmpty());
+    }
+}
@@ -222,4 +222,63 @@ class TestSpringEvaluatorAgain {
 
         verify(argGen, times(1)).generateArgument(any());
     }
+
+    private static ExecutionMonitor.Counters visitConditional(String method) throws ReflectiveOperationException {
+        String cls = "sa.com.cloudsolutions.antikythera.evaluator.Conditional";
+        CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(cls);
+        MethodDeclaration md = cu.findFirst(MethodDeclaration.class, f -> f.getNameAsString().equals(method)).orElseThrow();
+        SpringEvaluator eval = new SpringEvaluator(cls);
+        eval.setArgumentGenerator(mock(ArgumentGenerator.class));
+
+        ExecutionMonitor.reset();
+        eval.visit(md);
+        return ExecutionMonitor.getCounters().get(cls + "." + method + "()");
+    }
+
+    @Test
+    void testVisitStopsWhenUnreachable() throws ReflectiveOperationException {
+        /*
+         * The condition can never be true, so once the false path has been taken there is
+         * nothing left to aim for.
+         */
+        ExecutionMonitor.Counters counters = visitConditional("contradiction");
+        assertEquals(1, counters.getEvaluations());
+        assertEquals(2, counters.getBranches());
+        assertEquals(1, counters.getBranchesCovered());
+    }
+
+    @Test
+    void testVisitUntakenPaths() throws ReflectiveOperationException {
+        /*
+         * Only paths that were really taken are counted. The if statement inside the loop is
+         * never reached, and the other one only ever sees a true condition.
+         */
+        ExecutionMonitor.Counters counters = visitConditional("unreachable");
+        assertEquals(4, counters.getEvaluations());
+        assertEquals(4, counters.getBranches());
+        assertEquals(1, counters.getBranchesCovered());
+    }
+
+    @Test
+    void testVisitStateCarriedBetweenRuns() throws ReflectiveOperationException {
+        /*
+         * The first two runs return early and do not get any closer to the second if statement.
+         * The field that counts the calls is kept from run to run, so the third run reaches it.
+         */
+        ExecutionMonitor.Counters counters = visitConditional("stateful");
+        assertEquals(4, counters.getEvaluations());
+        assertEquals(4, counters.getBranches());
+        assertEquals(4, counters.getBranchesCovered());
+    }
+
+    @Test
+    void testVisitIdenticalBranches() throws ReflectiveOperationException {
+        /*
+         * The two if statements are exactly the same but their paths are tracked separately.
+         */
+        ExecutionMonitor.Counters counters = visitConditional("duplicates");
+        assertEquals(4, counters.getEvaluations());
+        assertEquals(4, counters.getBranches());
+        assertEquals(2, counters.getBranchesCovered());
+    }
 }
@@ -6,6 +6,7 @@ import com.github.javaparser.ast.body.MethodDeclaration;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
 import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import sa.com.cloudsolutions.antikythera.exception.AUTException;
 import sa.com.cloudsolutions.antikythera.exception.AntikytheraException;
@@ -17,7 +18,9 @@ import java.io.IOException;
 import java.io.PrintStream;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -72,9 +75,12 @@ class TestTryCatch extends TestHelper {
                 .findFirst(MethodDeclaration.class, m -> m.getNameAsString().equals("throwTantrum")).orElseThrow();
 
         AntikytheraRunTime.push(new Variable(1));
-        assertThrows(AUTException.class, () -> evaluator.executeMethod(doStuff));
+        AUTException aex = assertThrows(AUTException.class, () -> evaluator.executeMethod(doStuff));
 
         assertFalse(outContent.toString().contains("No tantrum thrown\n"));
+        assertNotNull(aex.getCause());
+        assertEquals(LoggerFactory.getLogger(AntikytheraException.class).isDebugEnabled(),
+                aex.getStackTrace().length != 0);
     }
 
     @Test
@@ -0,0 +1,16 @@
+package sa.com.cloudsolutions.antikythera.evaluator;
+
+public class Ticket {
+    private static final int FIRST = 1;
+
+    private final int first = FIRST;
+    private final long issued = System.nanoTime();
+
+    public long getIssued() {
+        return issued;
+    }
+
+    public static void main(String[] args) {
+        System.out.println(new Ticket().getIssued() != new Ticket().getIssued());
+    }
+}
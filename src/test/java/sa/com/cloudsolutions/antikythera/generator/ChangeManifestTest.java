@@ -0,0 +1,57 @@
+package sa.com.cloudsolutions.antikythera.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.parser.AbstractCompiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeManifestTest {
+    private static final String PACKAGE = "sa.com.cloudsolutions.antikythera.evaluator.";
+
+    @TempDir
+    Path output;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        Settings.setProperty("output_path", output.toString());
+        AbstractCompiler.reset();
+        AbstractCompiler.preProcess();
+    }
+
+    @Test
+    void testFirstRunGeneratesEverything() throws IOException {
+        ChangeManifest manifest = ChangeManifest.load();
+        assertTrue(manifest.isAffected(PACKAGE + "Hello"));
+    }
+
+    @Test
+    void testChangesPropagateToDependents() throws IOException {
+        ChangeManifest.load().save();
+        ChangeManifest manifest = ChangeManifest.load();
+        assertFalse(manifest.isAffected(PACKAGE + "Person"));
+
+        File f = output.resolve(ChangeManifest.MANIFEST_FILE).toFile();
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, String> files = new HashMap<>(mapper.readValue(f, ChangeManifest.Snapshot.class).files());
+        files.put(AbstractCompiler.classToPath(PACKAGE + "IPerson"), "modified");
+        mapper.writeValue(f, new ChangeManifest.Snapshot(files));
+
+        manifest = ChangeManifest.load();
+        assertTrue(manifest.isAffected(PACKAGE + "IPerson"));
+        assertTrue(manifest.isAffected(PACKAGE + "Person"));
+        assertTrue(manifest.isAffected(PACKAGE + "Anon"));
+        assertFalse(manifest.isAffected(PACKAGE + "Hello"));
+    }
+}
@@ -13,6 +13,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -173,4 +174,48 @@ class TestTruthTable {
         assertNotNull(first);
         assertTrue(TruthTable.isTrue(v.getFirst().get(first)));
     }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"!a", "a.equals(\"null\")", "a > b && c == d", "a == b", "a.equals(b)",
+            "a != null && b != null", "a == null || b == null", "a && b || !c", "x || y && !z",
+            "a > b && b < c", "a > b && b > c", "a && !a", "(a || b) && (!a || c) && !b"})
+    void testSolveMatchesTable(String condition) {
+        for (boolean state : new boolean[] {true, false}) {
+            TruthTable tt = new TruthTable(condition);
+            Optional<Map<Expression, Object>> solution = tt.solve(state);
+            List<Map<Expression, Object>> rows = new TruthTable(condition).findValuesForCondition(state);
+            assertEquals(rows.stream().findFirst(), solution, condition + " " + state);
+        }
+    }
+
+    @Test
+    void testSolveWithoutTable() {
+        StringBuilder condition = new StringBuilder("a0 != null");
+        for (int i = 1; i < 24; i++) {
+            condition.append(" && a").append(i).append(" != null");
+        }
+        TruthTable tt = new TruthTable(condition.toString());
+
+        Map<Expression, Object> values = tt.solve(true).orElseThrow();
+        assertEquals(24, values.size());
+        assertTrue(values.values().stream().allMatch("T"::equals));
+        assertTrue(tt.solve(false).isPresent());
+        assertSame(values, tt.solve(true).orElseThrow());
+    }
+
+    @Test
+    void testRowsMatchTable() {
+        TruthTable tt = new TruthTable("a > b && c == d");
+        List<Map<Expression, Object>> table = tt.getTable();
+
+        assertEquals(16, tt.getRowCount());
+        assertEquals(4, tt.getVariableCount());
+        for (int i = 0; i < tt.getRowCount(); i++) {
+            Map<Expression, Object> row = table.get(i);
+            for (int j = 0; j < tt.getVariableCount(); j++) {
+                assertEquals(row.get(tt.getVariable(j)), tt.getValue(i, j));
+            }
+            assertEquals(row.get(TruthTable.RESULT), tt.getResult(i));
+        }
+    }
 }
@@ -8,14 +8,24 @@ import sa.com.cloudsolutions.antikythera.configuration.Settings;
 import com.github.javaparser.ast.CompilationUnit;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
 
 import java.io.FileNotFoundException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -112,4 +122,91 @@ class AbstractCompilerTest {
         assertEquals("java.lang.Integer", result);
 
     }
+
+    @Test
+    void testFindImport() {
+        CompilationUnit cu = new CompilationUnit();
+        cu.addImport(new ImportDeclaration("java.util.List", false, false));
+        cu.addImport(new ImportDeclaration("java.util.concurrent", false, true));
+
+        ImportWrapper list = AbstractCompiler.findImport(cu, "List");
+        assertNotNull(list);
+        assertSame(list, AbstractCompiler.findImport(cu, "List"));
+        assertEquals("java.util.List", AbstractCompiler.findImport(cu, "java.util.List").getNameAsString());
+        assertEquals("java.util.concurrent.ConcurrentHashMap",
+                AbstractCompiler.findImport(cu, "ConcurrentHashMap").getSimplified().getNameAsString());
+        assertNull(AbstractCompiler.findImport(cu, "Set"));
+
+        cu.addImport(new ImportDeclaration("java.util.Set", false, false));
+        assertNotNull(AbstractCompiler.findImport(cu, "Set"));
+    }
+
+    @Test
+    void testFindExtraExport() {
+        Object exports = Settings.getProperty("extra_exports");
+        try {
+            Settings.setProperty("extra_exports", List.of("com.example.Outer.Inner"));
+            CompilationUnit cu = new CompilationUnit();
+
+            assertEquals("com.example.Outer.Inner", AbstractCompiler.findImport(cu, "Inner").getNameAsString());
+            assertEquals("com.example.Outer.Inner", AbstractCompiler.findImport(cu, "Outer.Inner").getNameAsString());
+            assertEquals("com.example.Outer.Inner",
+                    AbstractCompiler.findImport(cu, "com.example.Outer.Inner").getNameAsString());
+            assertNull(AbstractCompiler.findImport(cu, "Outer"));
+        } finally {
+            Settings.setProperty("extra_exports", exports);
+        }
+    }
+
+    @Test
+    void testResolutionMemoIsDiscarded(@TempDir Path dir) throws IOException {
+        CompilationUnit cu = StaticJavaParser.parse("""
+                package a.b;
+                import com.example.late.*;
+                import x.y.Nothing;
+                class Outer {}
+                """);
+        assertNull(AbstractCompiler.findFullyQualifiedName(cu, "Late"));
+        assertNull(AbstractCompiler.findFullyQualifiedName(cu, "List"));
+        assertNull(AbstractCompiler.findFullyQualifiedName(cu, "Inner"));
+
+        cu.getImport(1).setName("java.util.List");
+        assertEquals("java.util.List", AbstractCompiler.findFullyQualifiedName(cu, "List"));
+
+        cu.getType(0).addMember(new ClassOrInterfaceDeclaration().setName("Inner"));
+        assertNotNull(AbstractCompiler.findFullyQualifiedName(cu, "Inner"));
+
+        Path jar = dir.resolve("late.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("com/example/late/Late.class"));
+            out.write(new byte[] {0});
+            out.closeEntry();
+        }
+        ClassLoader previous = AbstractCompiler.loader;
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, previous)) {
+            AbstractCompiler.loader = loader;
+            TypeIndex.reset();
+            assertEquals("com.example.late.Late", AbstractCompiler.findFullyQualifiedName(cu, "Late"));
+        } finally {
+            AbstractCompiler.loader = previous;
+            TypeIndex.reset();
+        }
+    }
+
+    @Test
+    void testParallelPreProcess() throws IOException {
+        Set<String> serialClasses = new HashSet<>(AntikytheraRunTime.getResolvedClasses().keySet());
+        Set<String> serialSerializable = new HashSet<>(AntikytheraRunTime.findImplementations("java.io.Serializable"));
+
+        try {
+            Settings.setProperty("parallelism", 4);
+            AntikytheraRunTime.resetAll();
+            AbstractCompiler.preProcess();
+
+            assertEquals(serialClasses, AntikytheraRunTime.getResolvedClasses().keySet());
+            assertEquals(serialSerializable, AntikytheraRunTime.findImplementations("java.io.Serializable"));
+        } finally {
+            Settings.setProperty("parallelism", 1);
+        }
+    }
 }
@@ -0,0 +1,48 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.io.File;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassLookupTest {
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.reset();
+    }
+
+    @Test
+    void testFound() throws ClassNotFoundException {
+        assertSame(String.class, AbstractCompiler.loadClass("java.lang.String"));
+        assertSame(String.class, AbstractCompiler.loadClass("java.lang.String"));
+        assertEquals(1, ClassLookup.getMisses());
+        assertEquals(1, ClassLookup.getHits());
+    }
+
+    @Test
+    void testMissing() {
+        assertThrows(ClassNotFoundException.class, () -> AbstractCompiler.loadClass("a.b.Missing"));
+        ClassNotFoundException ex = assertThrows(ClassNotFoundException.class,
+                () -> AbstractCompiler.loadClass("a.b.Missing"));
+        assertEquals("a.b.Missing", ex.getMessage());
+        assertTrue(ClassLookup.findClass("a.b.Missing").isEmpty());
+        assertEquals(1, ClassLookup.getMisses());
+        assertEquals(2, ClassLookup.getHits());
+    }
+
+    @Test
+    void testVoid() throws ClassNotFoundException {
+        assertSame(Void.class, AbstractCompiler.loadClass("java.lang.Void"));
+        assertSame(Void.class, AbstractCompiler.loadClass("java.lang.Void"));
+        assertSame(Void.class, ClassLookup.findClass("java.lang.Void").orElseThrow());
+    }
+}
@@ -0,0 +1,71 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JarIndexTest {
+    @TempDir
+    Path folder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        Settings.setProperty("parse_cache", folder.toString());
+        JarIndex.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        Settings.setProperty("parse_cache", null);
+        JarIndex.reset();
+    }
+
+    @Test
+    void testIndexIsPersisted() throws IOException {
+        Path jar = createJar("a/b/C.class", "a/b/C$D.class", "a/b/package-info.class");
+        assertEquals(List.of("a.b.C", "a.b.C$D"), JarIndex.getClasses(jar));
+        JarIndex.save();
+        assertTrue(Files.exists(folder.resolve(JarIndex.INDEX_FILE)));
+
+        JarIndex.reset();
+        Files.delete(jar);
+        createJar("a/b/E.class");
+        assertEquals(List.of("a.b.E"), JarIndex.getClasses(jar));
+    }
+
+    @Test
+    void testUnknownTypesDoNotOpenTheJar() throws IOException {
+        LazyJarTypeSolver solver = new LazyJarTypeSolver(createJar("a/b/C.class", "a/b/C$D.class"));
+        assertTrue(solver.getKnownClasses().contains("a.b.C.D"));
+        assertFalse(solver.tryToSolveType("a.b.X").isSolved());
+        assertFalse(solver.isLoaded());
+    }
+
+    private Path createJar(String... entries) throws IOException {
+        Path jar = folder.resolve("test.jar");
+        try (OutputStream out = Files.newOutputStream(jar); JarOutputStream jos = new JarOutputStream(out)) {
+            for (String entry : entries) {
+                jos.putNextEntry(new JarEntry(entry));
+                jos.write(new byte[] {0});
+                jos.closeEntry();
+            }
+        }
+        return jar;
+    }
+}
@@ -0,0 +1,83 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyCompilationUnitTest {
+    private static final String NESTING = "sa.com.cloudsolutions.antikythera.evaluator.Nesting";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.reset();
+        AntikytheraRunTime.resetAll();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Settings.setProperty("evict_sources", false);
+        Settings.setProperty("lean_parse", false);
+        AbstractCompiler.reset();
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+    }
+
+    @Test
+    void testEvictableSources() throws IOException {
+        AbstractCompiler.preProcess();
+        Set<String> classes = new HashSet<>(AntikytheraRunTime.getResolvedClasses().keySet());
+        boolean controller = AntikytheraRunTime.isControllerClass(NESTING);
+
+        Settings.setProperty("evict_sources", true);
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+
+        assertEquals(classes, AntikytheraRunTime.getResolvedClasses().keySet());
+        assertEquals(controller, AntikytheraRunTime.isControllerClass(NESTING));
+        CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(NESTING);
+        assertNotNull(cu);
+        assertSame(cu, AntikytheraRunTime.getCompilationUnit(NESTING + ".Inner"));
+        assertTrue(AntikytheraRunTime.getClassInfo(NESTING).isLoaded());
+    }
+
+    @Test
+    void testReparse() {
+        Settings.setProperty("evict_sources", true);
+        LazyCompilationUnit lazy = new LazyCompilationUnit(AbstractCompiler.classToPath(NESTING));
+        assertTrue(lazy.isEvictable());
+        assertFalse(lazy.isLoaded());
+
+        CompilationUnit cu = lazy.get();
+        assertSame(cu, lazy.get());
+        assertTrue(AntikytheraRunTime.getClassInfo(NESTING + ".Inner").isLoaded());
+        assertSame(cu, AntikytheraRunTime.getCompilationUnit(NESTING + ".Inner"));
+    }
+
+    @Test
+    void testLeanParse() throws IOException {
+        Settings.setProperty("lean_parse", true);
+        AbstractCompiler.reset();
+        CompilationUnit cu = AbstractCompiler.parseSource(
+                AbstractCompiler.classToPath("sa.com.cloudsolutions.antikythera.evaluator.Hello"));
+        assertTrue(cu.getAllContainedComments().isEmpty());
+        for (MethodDeclaration md : cu.findAll(MethodDeclaration.class)) {
+            assertTrue(md.getBegin().isPresent());
+        }
+    }
+}
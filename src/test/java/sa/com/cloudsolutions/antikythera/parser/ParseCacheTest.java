@@ -0,0 +1,109 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.constants.Constants;
+import sa.com.cloudsolutions.antikythera.depsolver.InterfaceSolver;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParseCacheTest {
+    @TempDir
+    Path cacheFolder;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.reset();
+        Settings.setProperty("parse_cache", cacheFolder.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Settings.setProperty("parse_cache", null);
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+    }
+
+    @Test
+    void testWarmStartMatchesColdStart() throws IOException {
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+        assertTrue(Files.exists(cacheFolder.resolve(ParseCache.CACHE_FILE)));
+
+        Set<String> classes = new HashSet<>(AntikytheraRunTime.getResolvedClasses().keySet());
+        Set<String> serializable = new HashSet<>(AntikytheraRunTime.findImplementations("java.io.Serializable"));
+
+        AntikytheraRunTime.resetAll();
+        ParseCache parseCache = ParseCache.open();
+        assertTrue(parseCache.isEnabled());
+        AbstractCompiler.preProcess();
+
+        assertEquals(serializable, AntikytheraRunTime.findImplementations("java.io.Serializable"));
+        assertTrue(AntikytheraRunTime.hasClass("sa.com.cloudsolutions.antikythera.evaluator.Nesting"));
+        assertEquals(classes, AntikytheraRunTime.getResolvedClasses().keySet());
+
+        CompilationUnit outer = AntikytheraRunTime.getCompilationUnit("sa.com.cloudsolutions.antikythera.evaluator.Nesting");
+        assertNotNull(outer);
+        assertSame(outer, AntikytheraRunTime.getCompilationUnit("sa.com.cloudsolutions.antikythera.evaluator.Nesting.Inner"));
+    }
+
+    @Test
+    void testChangedFileIsProcessed() throws IOException {
+        String empty = AbstractCompiler.classToPath("sa.com.cloudsolutions.antikythera.parser.Empty");
+        String nesting = AbstractCompiler.classToPath("sa.com.cloudsolutions.antikythera.evaluator.Nesting");
+
+        ParseCache parseCache = ParseCache.open();
+        assertEquals(2, parseCache.restore(List.of(empty, nesting)).size());
+        InterfaceSolver solver = new InterfaceSolver();
+        solver.compile(empty);
+        parseCache.update(empty, solver);
+        parseCache.save();
+
+        parseCache = ParseCache.open();
+        assertEquals(List.of(nesting), parseCache.restore(List.of(empty, nesting)));
+    }
+
+    @Test
+    void testAddedParentInvalidatesDependent(@TempDir Path sources) throws IOException {
+        String basePath = Settings.getBasePath();
+        try {
+            Settings.setProperty(Constants.BASE_PATH, sources.toString());
+            Files.createDirectories(sources.resolve("sample"));
+            Files.writeString(sources.resolve("sample/Child.java"),
+                    "package sample;\npublic class Child extends Parent {}\n");
+            String child = "sample/Child.java";
+            String parent = "sample/Parent.java";
+
+            ParseCache parseCache = ParseCache.open();
+            assertEquals(List.of(child), parseCache.restore(List.of(child)));
+            InterfaceSolver solver = new InterfaceSolver();
+            solver.compile(child);
+            assertEquals(Set.of("Parent"), solver.getUnresolved());
+            parseCache.update(child, solver);
+            parseCache.save();
+
+            Files.writeString(sources.resolve(parent), "package sample;\npublic class Parent {}\n");
+            parseCache = ParseCache.open();
+            assertEquals(Set.of(child, parent), new HashSet<>(parseCache.restore(List.of(child, parent))));
+        } finally {
+            Settings.setProperty(Constants.BASE_PATH, basePath);
+        }
+    }
+}
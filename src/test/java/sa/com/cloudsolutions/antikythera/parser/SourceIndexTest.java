@@ -0,0 +1,91 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import com.github.javaparser.ast.CompilationUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+import sa.com.cloudsolutions.antikythera.evaluator.AntikytheraRunTime;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SourceIndexTest {
+    private static final String NESTING = "sa.com.cloudsolutions.antikythera.evaluator.Nesting";
+    private static Set<String> serializable;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.reset();
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+        serializable = new HashSet<>(AntikytheraRunTime.findImplementations("java.io.Serializable"));
+
+        Settings.setProperty("lazy_loading", true);
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        Settings.setProperty("lazy_loading", false);
+        AntikytheraRunTime.resetAll();
+        AbstractCompiler.preProcess();
+    }
+
+    @Test
+    void testFindPackageName() {
+        assertEquals("a.b", SourceIndex.findPackageName("/*\n * licence\n */\n// note\npackage a.b;\nclass C {}"));
+        assertEquals("", SourceIndex.findPackageName("import java.util.List;\nclass C {}"));
+    }
+
+    @Test
+    void testClassesAreLoadedOnDemand() {
+        assertTrue(AntikytheraRunTime.hasClass(NESTING));
+        assertFalse(AntikytheraRunTime.getClassInfo(NESTING).isLoaded());
+
+        CompilationUnit cu = AntikytheraRunTime.getCompilationUnit(NESTING + ".Inner");
+        assertNotNull(cu);
+        assertSame(cu, AntikytheraRunTime.getCompilationUnit(NESTING));
+    }
+
+    @Test
+    void testRelationsArePreserved() {
+        assertEquals(serializable, AntikytheraRunTime.findImplementations("java.io.Serializable"));
+    }
+
+    @Test
+    void testFindTopLevelTypes() {
+        String code = """
+                package a;
+                // class Commented {}
+                /* interface Hidden {} */
+                public class First {
+                    String s = "class Quoted {";
+                    class Nested {}
+                    enum Inner { A }
+                }
+                record Second(int x) {}
+                @interface Third {}
+                """;
+        assertEquals(List.of("First", "Second", "Third"), SourceIndex.findTopLevelTypes(code));
+    }
+
+    @Test
+    void testSecondaryTypesAreRegistered() {
+        String again = "sa.com.cloudsolutions.antikythera.evaluator.TestSpringEvaluatorAgain";
+        assertTrue(AntikytheraRunTime.hasClass(again));
+        assertSame(AntikytheraRunTime.getCompilationUnit("sa.com.cloudsolutions.antikythera.evaluator.TestSpringEvaluator"),
+                AntikytheraRunTime.getCompilationUnit(again));
+    }
+}
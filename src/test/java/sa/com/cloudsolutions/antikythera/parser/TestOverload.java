@@ -6,6 +6,7 @@ import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.PrimitiveType;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import sa.com.cloudsolutions.antikythera.depsolver.DepSolver;
@@ -22,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -87,6 +89,26 @@ class TestOverlord extends TestHelper {
 
     }
 
+    @Test
+    void testOverloadsAreRemembered() {
+        TypeDeclaration<?> decl = AbstractCompiler.getPublicType(compiler.getCompilationUnit());
+        MethodCallExpr mce = decl.getMethodsByName("main").getFirst().findAll(MethodCallExpr.class).get(1);
+
+        MCEWrapper withInt = new MCEWrapper(mce);
+        withInt.getArgumentTypes().add(PrimitiveType.intType());
+        MCEWrapper withString = new MCEWrapper(mce);
+        withString.getArgumentTypes().add(new ClassOrInterfaceType("String"));
+
+        Optional<Callable> first = AbstractCompiler.findMethodDeclaration(withInt, decl);
+        assertTrue(first.isPresent());
+        assertEquals("int", first.get().asMethodDeclaration().getParameter(0).getTypeAsString());
+        assertSame(first.get(), AbstractCompiler.findMethodDeclaration(withInt, decl).get());
+
+        Optional<Callable> second = AbstractCompiler.findMethodDeclaration(withString, decl);
+        assertTrue(second.isPresent());
+        assertEquals("String", second.get().asMethodDeclaration().getParameter(0).getTypeAsString());
+    }
+
     class FindMethodDeclarationCompiler extends AbstractCompiler {
         protected FindMethodDeclarationCompiler() throws IOException {
             File file = new File("src/test/java/sa/com/cloudsolutions/antikythera/evaluator/Overlord.java");
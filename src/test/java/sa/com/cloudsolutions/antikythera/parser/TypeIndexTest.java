@@ -0,0 +1,122 @@
+package sa.com.cloudsolutions.antikythera.parser;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import sa.com.cloudsolutions.antikythera.configuration.Settings;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeIndexTest {
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        Settings.loadConfigMap(new File("src/test/resources/generator-field-tests.yml"));
+        AbstractCompiler.reset();
+    }
+
+    @Test
+    void testJdkTypes() {
+        assertTrue(TypeIndex.contains("java.lang", "Integer"));
+        assertTrue(TypeIndex.contains("java.util.List"));
+        assertFalse(TypeIndex.contains("java.util", "Integer"));
+        assertFalse(TypeIndex.contains("java.util.Map$Entry"));
+    }
+
+    @Test
+    void testClassPathTypes() {
+        assertTrue(TypeIndex.contains("org.junit.jupiter.api", "Test"));
+        assertTrue(TypeIndex.contains("com.github.javaparser.ast", "CompilationUnit"));
+        assertFalse(TypeIndex.contains("com.github.javaparser.ast", "Nothing"));
+    }
+
+    @Test
+    void testIndexedJarIsNotRead(@TempDir Path dir) throws IOException {
+        Path jar = dir.resolve("indexed.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new JarEntry("com/example/indexed/Indexed.class"));
+            out.write(new byte[] {0});
+            out.closeEntry();
+        }
+        assertEquals(List.of("com.example.indexed.Indexed"), JarIndex.getClasses(jar));
+
+        /*
+         * Spoil the jar while keeping its size and time stamp, so that the entry in the index is
+         * still used but anything that opens the jar will not find the class.
+         */
+        FileTime modified = Files.getLastModifiedTime(jar);
+        Files.write(jar, new byte[(int) Files.size(jar)]);
+        Files.setLastModifiedTime(jar, modified);
+
+        ClassLoader previous = AbstractCompiler.loader;
+        try (URLClassLoader loader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, previous)) {
+            AbstractCompiler.loader = loader;
+            TypeIndex.reset();
+            assertTrue(TypeIndex.contains("com.example.indexed", "Indexed"));
+        } finally {
+            AbstractCompiler.loader = previous;
+            TypeIndex.reset();
+        }
+    }
+
+    @Test
+    void testManifestClassPath(@TempDir Path dir) throws IOException {
+        Files.createDirectories(dir.resolve("lib"));
+        createJar(dir.resolve("lib/listed.jar"), null, "com/example/manifest/Listed.class");
+        createJar(dir.resolve("lib/middle.jar"), "listed.jar");
+        Path booter = createJar(dir.resolve("booter.jar"), "lib/middle.jar");
+
+        ClassLoader previous = AbstractCompiler.loader;
+        String classPath = System.getProperty("java.class.path");
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            AbstractCompiler.loader = loader;
+            System.setProperty("java.class.path", booter.toString());
+            TypeIndex.reset();
+
+            assertTrue(TypeIndex.getTypes("com.example.manifest").contains("Listed"));
+            assertTrue(TypeIndex.contains("org.junit.jupiter.api", "Test"));
+            assertFalse(TypeIndex.getTypes("org.junit.jupiter.api").contains("Test"));
+        } finally {
+            System.setProperty("java.class.path", classPath);
+            AbstractCompiler.loader = previous;
+            TypeIndex.reset();
+        }
+    }
+
+    private static Path createJar(Path jar, String classPath, String... entries) throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        if (classPath != null) {
+            manifest.getMainAttributes().put(Attributes.Name.CLASS_PATH, classPath);
+        }
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar), manifest)) {
+            for (String entry : entries) {
+                out.putNextEntry(new JarEntry(entry));
+                out.write(new byte[] {0});
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    void testSourceTypes() {
+        assertTrue(TypeIndex.isSourceType("sa.com.cloudsolutions.antikythera.evaluator", "Nesting"));
+        assertFalse(TypeIndex.isSourceType("sa.com.cloudsolutions.antikythera.evaluator", "Nothing"));
+    }
+}